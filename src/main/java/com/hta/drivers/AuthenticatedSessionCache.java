@@ -0,0 +1,132 @@
+package com.hta.drivers;
+
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs each test thread in through the UI once, then logs later sessions of the same thread in by
+ * restoring a {@link SessionSnapshot} of that login.
+ * <p>
+ * Snapshots are kept per thread, so parallel workers never share a server-side session. A snapshot
+ * is used until it is older than AUTH_SESSION_TTL_MINUTES, holds an expired cookie, or fails to reach
+ * the landing page when restored; the session is then logged in through the UI again and a fresh
+ * snapshot is taken. Tests that exercise the login itself ask for the UI path explicitly.
+ * <p>
+ * The time spent on both paths is recorded, so the saving shows up in the suite log.
+ */
+public final class AuthenticatedSessionCache {
+
+    private static final Logger logger = LoggerUtils.getLogger(AuthenticatedSessionCache.class);
+    private static final AuthenticatedSessionCache instance = new AuthenticatedSessionCache();
+
+    private static final String AUTH_SESSION_TTL_MINUTES = "AUTH_SESSION_TTL_MINUTES";
+    private static final int DEFAULT_TTL_MINUTES = 20;
+
+    private final ThreadLocal<SessionSnapshot> snapshots = new ThreadLocal<>();
+
+    private final LongAdder uiLogins = new LongAdder();
+    private final LongAdder uiLoginNanos = new LongAdder();
+    private final LongAdder restores = new LongAdder();
+    private final LongAdder restoreNanos = new LongAdder();
+    private final LongAdder failedRestores = new LongAdder();
+
+    /**
+     * Login counters.
+     *
+     * @param uiLogins             logins through the login form
+     * @param averageUiLoginMillis average duration of a login through the form
+     * @param restores             logins by restoring a snapshot
+     * @param averageRestoreMillis average duration of a snapshot restore
+     * @param failedRestores       restores that did not reach the landing page and fell back to the form
+     */
+    public record Statistics(long uiLogins, double averageUiLoginMillis,
+                             long restores, double averageRestoreMillis, long failedRestores) {
+    }
+
+    private AuthenticatedSessionCache() {}
+
+    public static AuthenticatedSessionCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Reads the snapshot lifetime on first use, after the configuration has been loaded.
+     */
+    private static final class TtlHolder {
+        private static final Duration ttl = Duration.ofMinutes(PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), AUTH_SESSION_TTL_MINUTES, Integer.class)
+                .orElse(DEFAULT_TTL_MINUTES));
+    }
+
+    /**
+     * Logs the browser in, restoring this thread's snapshot when there is a usable one and
+     * otherwise running the UI login and snapshotting its result.
+     *
+     * @param driver         the browser to log in, on any page
+     * @param requireUiLogin whether the test needs the login form itself
+     * @param uiLogin        logs in through the login form and waits for the landing page
+     */
+    public void logIn(WebDriver driver, boolean requireUiLogin, Runnable uiLogin) {
+        SessionSnapshot snapshot = snapshots.get();
+        if (!requireUiLogin && snapshot != null && !snapshot.isExpired(TtlHolder.ttl)) {
+            long startTime = System.nanoTime();
+            boolean restored = restore(snapshot, driver);
+            long elapsed = System.nanoTime() - startTime;
+            if (restored) {
+                restores.increment();
+                restoreNanos.add(elapsed);
+                logger.info("Restored authenticated session in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+                return;
+            }
+            failedRestores.increment();
+            logger.info("Authenticated session snapshot is no longer valid, logging in through the UI");
+        }
+        snapshots.remove();
+
+        long startTime = System.nanoTime();
+        uiLogin.run();
+        long elapsed = System.nanoTime() - startTime;
+        uiLogins.increment();
+        uiLoginNanos.add(elapsed);
+        logger.info("Logged in through the UI in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        snapshots.set(SessionSnapshot.capture(driver));
+    }
+
+    /**
+     * Drops this thread's snapshot, e.g. after a test logged out.
+     */
+    public void invalidate() {
+        snapshots.remove();
+    }
+
+    public Statistics getStatistics() {
+        long uiLoginCount = uiLogins.sum();
+        long restoreCount = restores.sum();
+        return new Statistics(uiLoginCount, uiLoginCount == 0 ? 0 : uiLoginNanos.sum() / 1e6 / uiLoginCount,
+                restoreCount, restoreCount == 0 ? 0 : restoreNanos.sum() / 1e6 / restoreCount, failedRestores.sum());
+    }
+
+    public void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("Logins: {} through the UI (avg {} ms), {} restored from a snapshot (avg {} ms), {} failed restore(s)",
+                statistics.uiLogins(), Math.round(statistics.averageUiLoginMillis()),
+                statistics.restores(), Math.round(statistics.averageRestoreMillis()), statistics.failedRestores());
+    }
+
+    private static boolean restore(SessionSnapshot snapshot, WebDriver driver) {
+        try {
+            return snapshot.restoreInto(driver);
+        } catch (Exception error) {
+            logger.warn("Failed to restore authenticated session: {}", error.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package com.hta.drivers;
 
+import com.hta.drivers.DriverLifecycleTimings.Phase;
 import com.hta.utils.logging.ErrorHandler;
 import com.hta.utils.logging.LoggerUtils;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 import static com.hta.drivers.BrowserOptionsUtils.*;
 
@@ -14,15 +32,15 @@ import static com.hta.drivers.BrowserOptionsUtils.*;
 public class BrowserFactory {
     private final Logger logger = LoggerUtils.getLogger(BrowserFactory.class);
 
-    public synchronized void initializeBrowser(String browserName, String... arguments) {
+    public void initializeBrowser(String browserName, String... arguments) {
         try {
-            WebDriver driver = createDriver(browserName, arguments);
             DriverFactory driverFactory = DriverFactory.getInstance();
 
-            if (driverFactory != null) {
-                driverFactory.setDriver(driver);
-            } else {
+            if (driverFactory == null) {
                 logger.warn("DriverFactory instance is null. WebDriver will not be stored.");
+            } else {
+                driverFactory.startSession(WebDriverPool.sessionKey("local", browserName, arguments),
+                        () -> createDriver(browserName, arguments));
             }
 
             logger.info("Initialized {} browser", browserName);
@@ -38,9 +56,12 @@ public class BrowserFactory {
     private WebDriver createDriver(String browserName, String... arguments) {
         try {
             return switch (browserName.toLowerCase()) {
-                case "chrome" -> new ChromeDriver(getChromeOptions(arguments));
-                case "firefox" -> new FirefoxDriver(getFirefoxOptions(arguments));
-                case "edge" -> new EdgeDriver(getEdgeOptions(arguments));
+                case "chrome" -> launch(browserName, withProfileDirectory(new ChromeDriverService.Builder()).build(),
+                        getChromeOptions(arguments), ChromeOptions::setBinary, ChromeDriver::new);
+                case "firefox" -> launch(browserName, withProfileDirectory(new GeckoDriverService.Builder()).build(),
+                        getFirefoxOptions(arguments), FirefoxOptions::setBinary, FirefoxDriver::new);
+                case "edge" -> launch(browserName, withProfileDirectory(new EdgeDriverService.Builder()).build(),
+                        getEdgeOptions(arguments), EdgeOptions::setBinary, EdgeDriver::new);
                 default -> throw new IllegalArgumentException("Unsupported browser: " + browserName);
             };
         } catch (Exception error) {
@@ -48,4 +69,74 @@ public class BrowserFactory {
             throw new RuntimeException("Browser initialization failed", error);
         }
     }
+
+    /**
+     * Starts a local browser in three timed steps, the same ones the driver constructor would otherwise
+     * take in one go: resolving the driver binary, spawning the driver process and the new-session handshake.
+     */
+    private static <S extends DriverService, O extends MutableCapabilities> WebDriver launch(
+            String browserName, S service, O options,
+            BiConsumer<O, String> browserBinarySetter, BiFunction<S, O, WebDriver> driverConstructor) {
+        DriverLifecycleTimings.Launch launch = DriverLifecycleTimings.getInstance().newLaunch("local", browserName);
+        launch.time(Phase.DRIVER_RESOLUTION, () -> {
+            resolveDriver(service, options, browserBinarySetter);
+            return null;
+        });
+        launch.time(Phase.PROCESS_SPAWN, () -> {
+            startService(service);
+            return null;
+        });
+        try {
+            WebDriver driver = launch.time(Phase.SESSION_HANDSHAKE, () -> driverConstructor.apply(service, options));
+            return tracked(launch.attach(driver), browserName, service);
+        } catch (RuntimeException error) {
+            service.stop();
+            throw error;
+        }
+    }
+
+    /**
+     * Finds the driver, and the browser if Selenium Manager provides one, as the driver constructor would.
+     */
+    private static <O extends MutableCapabilities> void resolveDriver(DriverService service, O options,
+                                                                      BiConsumer<O, String> browserBinarySetter) {
+        if (service.getExecutable() != null) {
+            return;
+        }
+        DriverFinder finder = new DriverFinder(service, options);
+        service.setExecutable(finder.getDriverPath());
+        if (finder.hasBrowserPath()) {
+            browserBinarySetter.accept(options, finder.getBrowserPath());
+            options.setCapability(CapabilityType.BROWSER_VERSION, (Object) null);
+        }
+    }
+
+    private static void startService(DriverService service) {
+        try {
+            service.start();
+        } catch (IOException error) {
+            throw new WebDriverException("Failed to start the driver process " + service.getExecutable(), error);
+        }
+    }
+
+    /**
+     * Hands a new session and its driver process to the {@link SessionReaper}, so they are cleaned up
+     * even if the session is never quit.
+     */
+    private static WebDriver tracked(WebDriver driver, String browserName, DriverService service) {
+        SessionReaper.getInstance().trackLocal(driver, browserName, service);
+        return driver;
+    }
+
+    /**
+     * Points the driver's temporary directory, where it creates the browser's throwaway profile,
+     * at the profile directory of the selected browser profile, if it has one.
+     */
+    private static <B extends DriverService.Builder<?, ?>> B withProfileDirectory(B serviceBuilder) {
+        Path profileDirectory = getProfileDirectory();
+        if (profileDirectory != null) {
+            serviceBuilder.withEnvironment(Map.of("TMPDIR", profileDirectory.toString()));
+        }
+        return serviceBuilder;
+    }
 }
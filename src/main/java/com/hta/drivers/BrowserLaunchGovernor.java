@@ -0,0 +1,207 @@
+package com.hta.drivers;
+
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many browsers start at the same time, across all threads.
+ * <p>
+ * Launches take a permit from a fair semaphore, so parallel suites ramp up in request order without
+ * starting more browsers at once than the host or the Grid can take. A launch that does not produce a
+ * session within the launch timeout, or fails with a {@link WebDriverException}, is retried after an
+ * exponential backoff with full jitter, so threads that failed together do not retry together. Other
+ * failures, such as an unsupported browser, are not retried.
+ * <p>
+ * A timed-out launch keeps its permit until it actually finishes, and its session is quit if one
+ * arrives late, so abandoned launches neither leak browsers nor let more launches run than allowed.
+ */
+public final class BrowserLaunchGovernor {
+
+    private static final Logger logger = LoggerUtils.getLogger(BrowserLaunchGovernor.class);
+
+    public static final int DEFAULT_MAX_CONCURRENT_LAUNCHES = 2;
+    public static final int DEFAULT_LAUNCH_TIMEOUT_SECONDS = 60;
+    public static final int DEFAULT_LAUNCH_RETRIES = 2;
+
+    private static final long BASE_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+
+    private final Semaphore launchPermits;
+    private final long launchTimeoutMillis;
+    private final int maxRetries;
+    private final ExecutorService launchExecutor = Executors.newCachedThreadPool(
+            Thread.ofPlatform().daemon().name("browser-launch-", 1).factory());
+
+    private final LongAdder launches = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder permitWaitNanos = new LongAdder();
+    private final AtomicLong maxPermitWaitNanos = new AtomicLong();
+
+    /**
+     * Launch counters.
+     *
+     * @param launches                successful launches
+     * @param retries                 launch attempts repeated after a timeout or failure
+     * @param timeouts                attempts abandoned after the launch timeout
+     * @param failures                launches that failed after all retries
+     * @param averagePermitWaitMillis average time spent waiting for a launch permit
+     * @param maxPermitWaitMillis     longest time spent waiting for a launch permit
+     */
+    public record Statistics(long launches, long retries, long timeouts, long failures,
+                             double averagePermitWaitMillis, double maxPermitWaitMillis) {
+    }
+
+    /**
+     * @param maxConcurrentLaunches the most browsers starting at the same time
+     * @param launchTimeoutSeconds  how long one launch attempt may take, permit wait excluded
+     * @param maxRetries            how many times a timed-out or failed launch is repeated
+     */
+    public BrowserLaunchGovernor(int maxConcurrentLaunches, int launchTimeoutSeconds, int maxRetries) {
+        if (maxConcurrentLaunches < 1 || launchTimeoutSeconds < 1 || maxRetries < 0) {
+            throw new IllegalArgumentException("Invalid launch limits: concurrency=" + maxConcurrentLaunches
+                    + ", timeout=" + launchTimeoutSeconds + "s, retries=" + maxRetries);
+        }
+        this.launchPermits = new Semaphore(maxConcurrentLaunches, true);
+        this.launchTimeoutMillis = TimeUnit.SECONDS.toMillis(launchTimeoutSeconds);
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Starts a browser once a launch permit is free, retrying timed-out and failed attempts.
+     *
+     * @param key      the launch configuration, used in logs
+     * @param launcher starts the browser
+     * @return the running browser
+     * @throws WebDriverException if the browser could not be started within the retries
+     */
+    public WebDriver launch(String key, Supplier<WebDriver> launcher) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                WebDriver driver = launchOnce(launcher);
+                launches.increment();
+                return driver;
+            } catch (TimeoutException error) {
+                timeouts.increment();
+                if (attempt >= maxRetries) {
+                    failures.increment();
+                    throw new WebDriverException("Browser launch for '" + key + "' timed out after "
+                            + (attempt + 1) + " attempt(s) of " + launchTimeoutMillis + " ms", error);
+                }
+                logger.warn("Browser launch for '{}' timed out after {} ms, retrying", key, launchTimeoutMillis);
+            } catch (RuntimeException error) {
+                if (attempt >= maxRetries || !isRetryable(error)) {
+                    failures.increment();
+                    throw error;
+                }
+                logger.warn("Browser launch for '{}' failed, retrying: {}", key, error.getMessage());
+            }
+            retries.increment();
+            backOff(attempt);
+        }
+    }
+
+    public Statistics getStatistics() {
+        long permitCount = launches.sum() + retries.sum() + failures.sum();
+        return new Statistics(launches.sum(), retries.sum(), timeouts.sum(), failures.sum(),
+                permitCount == 0 ? 0 : permitWaitNanos.sum() / 1e6 / permitCount,
+                maxPermitWaitNanos.get() / 1e6);
+    }
+
+    public void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("Browser launches: {} started, {} retried, {} timed out, {} failed, permit wait avg {} ms / max {} ms",
+                statistics.launches(), statistics.retries(), statistics.timeouts(), statistics.failures(),
+                Math.round(statistics.averagePermitWaitMillis()), Math.round(statistics.maxPermitWaitMillis()));
+    }
+
+    private WebDriver launchOnce(Supplier<WebDriver> launcher) throws TimeoutException {
+        long waitStart = System.nanoTime();
+        try {
+            launchPermits.acquire();
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting to launch a browser", error);
+        }
+        long waitNanos = System.nanoTime() - waitStart;
+        permitWaitNanos.add(waitNanos);
+        maxPermitWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+        CompletableFuture<WebDriver> attempt;
+        try {
+            attempt = CompletableFuture.supplyAsync(launcher, launchExecutor);
+        } catch (RuntimeException error) {
+            launchPermits.release();
+            throw error;
+        }
+        // The permit is held until the launch really ends, even when this thread stops waiting for it
+        attempt.whenComplete((driver, error) -> launchPermits.release());
+
+        try {
+            return attempt.get(launchTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException error) {
+            attempt.thenAccept(BrowserLaunchGovernor::quitLateSession);
+            throw error;
+        } catch (ExecutionException error) {
+            if (error.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new WebDriverException("Browser launch failed", error.getCause());
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            attempt.thenAccept(BrowserLaunchGovernor::quitLateSession);
+            throw new WebDriverException("Interrupted while launching a browser", error);
+        }
+    }
+
+    /**
+     * Startup failures such as a busy port or a crashed browser are worth another try;
+     * configuration errors such as an unsupported browser are not.
+     */
+    private static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalArgumentException) {
+                return false;
+            }
+            if (cause instanceof WebDriverException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void backOff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while backing off a browser launch", error);
+        }
+    }
+
+    private static void quitLateSession(WebDriver driver) {
+        try {
+            DriverLifecycleTimings.getInstance().timeQuit(driver, driver::quit);
+            logger.info("Quit browser whose launch finished after the timeout");
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "quitLateSession", "Failed to quit late browser session");
+        }
+    }
+}
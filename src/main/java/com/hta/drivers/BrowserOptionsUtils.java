@@ -1,47 +1,165 @@
 package com.hta.drivers;
 
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
 import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+/**
+ * Builds browser options from the {@link BrowserProfile} selected by BROWSER_PROFILE, plus the launch
+ * arguments of the caller.
+ * <p>
+ * The options of every profile, browser and argument list are compiled once and kept as templates;
+ * each launch gets its own copy, so launches neither re-process arguments nor share mutable options.
+ * Launch arguments are added after the profile's own, except those whose switch the profile already sets,
+ * e.g. a plain --headless is dropped when the profile asks for --headless=new.
+ */
 public class BrowserOptionsUtils {
 
+    private static final Logger logger = LoggerUtils.getLogger(BrowserOptionsUtils.class);
+
+    private static final String BROWSER_PROFILE = "BROWSER_PROFILE";
+    private static final Path TMPFS_DIRECTORY = Path.of("/dev/shm");
+    private static final Capabilities NO_CAPABILITIES = new ImmutableCapabilities();
+
+    private static final Map<TemplateKey, MutableCapabilities> templates = new ConcurrentHashMap<>();
+
+    private record TemplateKey(BrowserProfile profile, String browserName, List<String> arguments) {
+    }
+
+    /**
+     * Reads the selected profile on first use, after the configuration has been loaded.
+     */
+    private static final class ProfileHolder {
+        private static final BrowserProfile profile = BrowserProfile.fromName(
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), BROWSER_PROFILE, String.class)
+                        .orElse(BrowserProfile.DEFAULT.getProfileName()));
+
+        static {
+            logger.info("Using browser profile '{}'", profile.getProfileName());
+        }
+    }
+
+    public static BrowserProfile getBrowserProfile() {
+        return ProfileHolder.profile;
+    }
+
     public static ChromeOptions getChromeOptions(String... arguments) {
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments(processArguments(arguments));
-        return options;
+        return (ChromeOptions) copyOf(template("chrome", arguments));
     }
 
     public static FirefoxOptions getFirefoxOptions(String... arguments) {
-        FirefoxOptions options = new FirefoxOptions();
-        options.addArguments(processArguments(arguments));
-        return options;
+        return (FirefoxOptions) copyOf(template("firefox", arguments));
     }
 
     public static EdgeOptions getEdgeOptions(String... arguments) {
-        EdgeOptions options = new EdgeOptions();
-        options.addArguments(processArguments(arguments));
+        return (EdgeOptions) copyOf(template("edge", arguments));
+    }
+
+    /**
+     * Gets the compiled capabilities of a browser as they are sent to a Grid, without copying them.
+     *
+     * @param browserName chrome, firefox or edge
+     * @param arguments   the launch arguments
+     * @return the read-only capabilities
+     * @throws IllegalArgumentException if the browser is not supported
+     */
+    public static Capabilities getCapabilities(String browserName, String... arguments) {
+        return new ImmutableCapabilities(template(browserName, arguments));
+    }
+
+    /**
+     * The directory local browsers of the selected profile keep their temporary profile in, if it is
+     * not the default temporary directory.
+     *
+     * @return the tmpfs directory when the profile asks for it and the host has one, otherwise null
+     */
+    public static Path getProfileDirectory() {
+        return getBrowserProfile().usesTmpfsProfileDirectory() && Files.isWritable(TMPFS_DIRECTORY)
+                ? TMPFS_DIRECTORY
+                : null;
+    }
+
+    private static MutableCapabilities template(String browserName, String[] arguments) {
+        TemplateKey key = new TemplateKey(getBrowserProfile(), browserName.toLowerCase(), processArguments(arguments));
+        return templates.computeIfAbsent(key, BrowserOptionsUtils::compile);
+    }
+
+    private static MutableCapabilities compile(TemplateKey key) {
+        BrowserProfile profile = key.profile();
+        return switch (key.browserName()) {
+            case "chrome" -> withChromiumProfile(new ChromeOptions(), profile, key.arguments());
+            case "edge" -> withChromiumProfile(new EdgeOptions(), profile, key.arguments());
+            case "firefox" -> {
+                FirefoxOptions options = new FirefoxOptions();
+                options.addArguments(merge(profile.getFirefoxArguments(), key.arguments()));
+                profile.getFirefoxPreferences().forEach(options::addPreference);
+                yield options;
+            }
+            default -> throw new IllegalArgumentException("Unsupported browser: " + key.browserName());
+        };
+    }
+
+    private static <T extends ChromiumOptions<?>> T withChromiumProfile(T options, BrowserProfile profile,
+                                                                        List<String> arguments) {
+        options.addArguments(merge(profile.getChromiumArguments(), arguments));
+        if (!profile.getChromiumPreferences().isEmpty()) {
+            options.setExperimentalOption("prefs", profile.getChromiumPreferences());
+        }
         return options;
     }
 
+    /**
+     * Appends the launch arguments to the profile's, skipping switches the profile already sets.
+     */
+    private static List<String> merge(List<String> profileArguments, List<String> arguments) {
+        Set<String> profileSwitches = profileArguments.stream()
+                .map(BrowserOptionsUtils::switchName)
+                .collect(Collectors.toSet());
+        List<String> merged = new ArrayList<>(profileArguments);
+        arguments.stream()
+                .filter(argument -> !profileSwitches.contains(switchName(argument)))
+                .forEach(merged::add);
+        return merged;
+    }
+
+    private static String switchName(String argument) {
+        String name = argument.replaceFirst("^-+", "");
+        int valueStart = name.indexOf('=');
+        return valueStart < 0 ? name : name.substring(0, valueStart);
+    }
+
+    /**
+     * Copies a template, keeping its options type; merging nothing into options returns a new instance.
+     */
+    private static MutableCapabilities copyOf(MutableCapabilities template) {
+        return template.merge(NO_CAPABILITIES);
+    }
+
     private static List<String> processArguments(String[] arguments) {
         try {
-            List<String> processedArgs = (arguments == null)
-                    ? new ArrayList<>()
+            return (arguments == null)
+                    ? List.of()
                     : Arrays.stream(arguments).map(String::trim).filter(arg -> !arg.isEmpty()).toList();
-
-            // Ensure "--incognito" is always included
-            if (!processedArgs.contains("--incognito")) {
-                processedArgs = new ArrayList<>(processedArgs); // Convert to mutable list
-                processedArgs.addFirst("--incognito"); // Add "--incognito" at the beginning
-            }
-
-            return processedArgs;
         } catch (Exception error) {
             ErrorHandler.logError(error, "processArguments", "Failed to process arguments");
             throw new RuntimeException("Failed to process arguments", error);
@@ -0,0 +1,286 @@
+package com.hta.drivers;
+
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Starts browsers in the background ahead of demand, so a test that needs a new session can take
+ * one that is already running instead of waiting for the full startup.
+ * <p>
+ * For every launch configuration the prefetcher tracks how long a browser takes to start and how often
+ * sessions are requested. By Little's law, covering the startup latency takes about
+ * {@code startup latency / time between requests} browsers in flight, so that is the depth it keeps
+ * ready or starting, capped at {@code maxDepth} (the number of test threads). Until a startup has been
+ * observed it prefetches a single browser.
+ * <p>
+ * Browsers that sit ready cost memory and, on a Grid, a slot; the time they spend waiting is reported
+ * as idle cost next to the hit rate, and browsers still unused at shutdown are counted as wasted.
+ */
+public final class BrowserPrefetcher {
+
+    private static final Logger logger = LoggerUtils.getLogger(BrowserPrefetcher.class);
+
+    // Weight of the newest sample in the moving averages
+    private static final double SMOOTHING = 0.3;
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+
+    private final int maxDepth;
+    private final ExecutorService launchExecutor;
+    private final Map<String, LaunchState> states = new ConcurrentHashMap<>();
+    private volatile boolean shutdown;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder prefetched = new LongAdder();
+    private final LongAdder failedPrefetches = new LongAdder();
+    private final LongAdder wasted = new LongAdder();
+    private final LongAdder handedOverIdleNanos = new LongAdder();
+    private final LongAdder wastedIdleNanos = new LongAdder();
+
+    private record ReadySession(WebDriver driver, long readyAtNanos) {
+    }
+
+    /**
+     * Startup and demand observations of one launch configuration.
+     */
+    private static final class LaunchState {
+        private final Deque<ReadySession> ready = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger readyCount = new AtomicInteger();
+        private final AtomicInteger starting = new AtomicInteger();
+        private final AtomicLong lastRequestNanos = new AtomicLong();
+        private volatile double averageStartupNanos;
+        private volatile double averageRequestIntervalNanos;
+
+        private synchronized void recordStartup(long nanos) {
+            averageStartupNanos = averageStartupNanos == 0 ? nanos : average(averageStartupNanos, nanos);
+        }
+
+        private void recordRequest(long now) {
+            long previous = lastRequestNanos.getAndSet(now);
+            if (previous != 0) {
+                synchronized (this) {
+                    long interval = now - previous;
+                    averageRequestIntervalNanos = averageRequestIntervalNanos == 0
+                            ? interval : average(averageRequestIntervalNanos, interval);
+                }
+            }
+        }
+
+        private static double average(double current, long sample) {
+            return current + SMOOTHING * (sample - current);
+        }
+    }
+
+    /**
+     * Prefetch counters.
+     *
+     * @param requests             sessions requested
+     * @param hits                 requests served by a prefetched browser
+     * @param prefetched           browsers started in the background
+     * @param failedPrefetches     background starts that failed
+     * @param wasted               prefetched browsers quit unused at shutdown
+     * @param averageIdleMillis    average time a handed-over browser waited before it was used
+     * @param totalIdleSeconds     time all prefetched browsers spent waiting, used or not
+     * @param averageStartupMillis moving average of browser startup time, over all configurations
+     */
+    public record Statistics(long requests, long hits, long prefetched, long failedPrefetches, long wasted,
+                             double averageIdleMillis, double totalIdleSeconds, double averageStartupMillis) {
+
+        public double hitRate() {
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    /**
+     * @param maxDepth the most browsers to keep ready or starting per launch configuration, usually the thread count
+     */
+    public BrowserPrefetcher(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Prefetch depth must be positive: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        this.launchExecutor = Executors.newFixedThreadPool(maxDepth,
+                Thread.ofPlatform().daemon().name("browser-prefetch-", 1).factory());
+    }
+
+    /**
+     * Hands over a prefetched browser for the key if one is ready, and otherwise starts one on the
+     * calling thread. Either way, tops up the browsers starting in the background to the target depth.
+     *
+     * @param key             the launch configuration, see {@link WebDriverPool#sessionKey}
+     * @param browserLauncher starts a browser of that configuration
+     * @return a running browser
+     */
+    public WebDriver acquire(String key, Supplier<WebDriver> browserLauncher) {
+        LaunchState state = states.computeIfAbsent(key, ignored -> new LaunchState());
+        long now = System.nanoTime();
+        state.recordRequest(now);
+        requests.increment();
+
+        WebDriver driver = takeReady(state, now);
+        if (driver != null) {
+            hits.increment();
+        }
+        replenish(key, state, browserLauncher);
+
+        if (driver == null) {
+            long startTime = System.nanoTime();
+            driver = browserLauncher.get();
+            state.recordStartup(System.nanoTime() - startTime);
+        }
+        return driver;
+    }
+
+    /**
+     * Stops prefetching and quits the browsers that were never handed over.
+     */
+    public void shutdown() {
+        shutdown = true;
+        launchExecutor.shutdown();
+        try {
+            if (!launchExecutor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Browser prefetch launches still running after {} s", SHUTDOWN_WAIT_SECONDS);
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+        }
+        long now = System.nanoTime();
+        states.values().forEach(state -> {
+            ReadySession session;
+            while ((session = state.ready.pollFirst()) != null) {
+                state.readyCount.decrementAndGet();
+                wasted.increment();
+                wastedIdleNanos.add(now - session.readyAtNanos());
+                quit(session.driver());
+            }
+        });
+    }
+
+    public Statistics getStatistics() {
+        long hitCount = hits.sum();
+        double averageStartupNanos = states.values().stream()
+                .mapToDouble(state -> state.averageStartupNanos)
+                .filter(nanos -> nanos > 0)
+                .average()
+                .orElse(0);
+        return new Statistics(requests.sum(), hitCount, prefetched.sum(), failedPrefetches.sum(), wasted.sum(),
+                hitCount == 0 ? 0 : handedOverIdleNanos.sum() / 1e6 / hitCount,
+                (handedOverIdleNanos.sum() + wastedIdleNanos.sum()) / 1e9,
+                averageStartupNanos / 1e6);
+    }
+
+    public void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("Browser prefetch: {} request(s), {} hit(s) ({}%), {} prefetched, {} failed, {} wasted, "
+                        + "startup avg {} ms, idle avg {} ms / total {} s",
+                statistics.requests(), statistics.hits(), Math.round(statistics.hitRate() * 100),
+                statistics.prefetched(), statistics.failedPrefetches(), statistics.wasted(),
+                Math.round(statistics.averageStartupMillis()), Math.round(statistics.averageIdleMillis()),
+                Math.round(statistics.totalIdleSeconds()));
+    }
+
+    /**
+     * The number of browsers to keep ready or starting: enough to cover one startup at the observed
+     * request rate, and at least one.
+     */
+    private int targetDepth(LaunchState state) {
+        double startup = state.averageStartupNanos;
+        double interval = state.averageRequestIntervalNanos;
+        if (startup == 0 || interval == 0) {
+            return 1;
+        }
+        return (int) Math.max(1, Math.min(maxDepth, Math.ceil(startup / interval)));
+    }
+
+    private WebDriver takeReady(LaunchState state, long now) {
+        ReadySession session;
+        while ((session = state.ready.pollFirst()) != null) {
+            state.readyCount.decrementAndGet();
+            if (isAlive(session.driver())) {
+                handedOverIdleNanos.add(now - session.readyAtNanos());
+                return session.driver();
+            }
+            failedPrefetches.increment();
+            quit(session.driver());
+        }
+        return null;
+    }
+
+    private void replenish(String key, LaunchState state, Supplier<WebDriver> browserLauncher) {
+        int target = targetDepth(state);
+        while (!shutdown) {
+            int starting = state.starting.get();
+            if (state.readyCount.get() + starting >= target) {
+                return;
+            }
+            if (state.starting.compareAndSet(starting, starting + 1)) {
+                try {
+                    launchExecutor.execute(() -> prefetch(key, state, browserLauncher));
+                } catch (RejectedExecutionException error) {
+                    state.starting.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void prefetch(String key, LaunchState state, Supplier<WebDriver> browserLauncher) {
+        try {
+            long startTime = System.nanoTime();
+            WebDriver driver = browserLauncher.get();
+            long readyAt = System.nanoTime();
+            state.recordStartup(readyAt - startTime);
+            prefetched.increment();
+
+            if (shutdown) {
+                wasted.increment();
+                quit(driver);
+                return;
+            }
+            state.ready.offerLast(new ReadySession(driver, readyAt));
+            state.readyCount.incrementAndGet();
+            logger.debug("Prefetched browser for '{}' in {} ms", key, TimeUnit.NANOSECONDS.toMillis(readyAt - startTime));
+        } catch (Exception error) {
+            failedPrefetches.increment();
+            ErrorHandler.logError(error, "prefetch", "Failed to prefetch browser for: " + key);
+        } finally {
+            state.starting.decrementAndGet();
+        }
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            if (driver instanceof RemoteWebDriver remoteDriver && remoteDriver.getSessionId() == null) {
+                return false;
+            }
+            return driver.getWindowHandle() != null;
+        } catch (Exception error) {
+            logger.warn("Prefetched browser is no longer usable: {}", error.getMessage());
+            return false;
+        }
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            DriverLifecycleTimings.getInstance().timeQuit(driver, driver::quit);
+        } catch (Exception error) {
+            logger.warn("Failed to quit prefetched browser: {}", error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.hta.drivers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named sets of browser launch settings, selected by BROWSER_PROFILE in the global config.
+ * <p>
+ * {@code default} only opens the browser in a private window, as the framework always has.
+ * {@code fast-headless} trims a headless browser down to what UI tests need: no GPU, extensions,
+ * first-run screens, background networking or images, and a browser profile directory on tmpfs
+ * (/dev/shm) for local browsers, so profile writes never touch the disk. Firefox needs no switch
+ * for extensions, since the fresh profile it starts with has none. Checks that wait for an image to
+ * render must be skipped under a profile that does not {@linkplain #loadsImages() load images}.
+ */
+public enum BrowserProfile {
+
+    DEFAULT("default",
+            List.of("--incognito"),
+            Map.of(),
+            List.of("--incognito"),
+            Map.of(),
+            true,
+            false),
+
+    FAST_HEADLESS("fast-headless",
+            List.of("--incognito",
+                    "--headless=new",
+                    "--disable-gpu",
+                    "--disable-extensions",
+                    "--disable-component-extensions-with-background-pages",
+                    "--disable-background-networking",
+                    "--no-first-run",
+                    "--no-default-browser-check",
+                    "--mute-audio",
+                    "--blink-settings=imagesEnabled=false"),
+            Map.of("profile.managed_default_content_settings.images", 2),
+            List.of("-private",
+                    "-headless"),
+            Map.of("permissions.default.image", 2,
+                    "browser.shell.checkDefaultBrowser", false),
+            false,
+            true);
+
+    private final String profileName;
+    private final List<String> chromiumArguments;
+    private final Map<String, Object> chromiumPreferences;
+    private final List<String> firefoxArguments;
+    private final Map<String, Object> firefoxPreferences;
+    private final boolean imagesEnabled;
+    private final boolean tmpfsProfileDirectory;
+
+    BrowserProfile(String profileName,
+                   List<String> chromiumArguments, Map<String, Object> chromiumPreferences,
+                   List<String> firefoxArguments, Map<String, Object> firefoxPreferences,
+                   boolean imagesEnabled, boolean tmpfsProfileDirectory) {
+        this.profileName = profileName;
+        this.chromiumArguments = chromiumArguments;
+        this.chromiumPreferences = chromiumPreferences;
+        this.firefoxArguments = firefoxArguments;
+        this.firefoxPreferences = firefoxPreferences;
+        this.imagesEnabled = imagesEnabled;
+        this.tmpfsProfileDirectory = tmpfsProfileDirectory;
+    }
+
+    /**
+     * Finds a profile by the name used in the config.
+     *
+     * @param profileName the profile name, e.g. fast-headless
+     * @return the profile
+     * @throws IllegalArgumentException if there is no profile of that name
+     */
+    public static BrowserProfile fromName(String profileName) {
+        return Arrays.stream(values())
+                .filter(profile -> profile.profileName.equalsIgnoreCase(profileName.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown browser profile: " + profileName));
+    }
+
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * @return the command line switches of Chrome and Edge
+     */
+    public List<String> getChromiumArguments() {
+        return chromiumArguments;
+    }
+
+    /**
+     * @return the user preferences of Chrome and Edge
+     */
+    public Map<String, Object> getChromiumPreferences() {
+        return chromiumPreferences;
+    }
+
+    public List<String> getFirefoxArguments() {
+        return firefoxArguments;
+    }
+
+    public Map<String, Object> getFirefoxPreferences() {
+        return firefoxPreferences;
+    }
+
+    /**
+     * @return whether browsers launched with this profile load images
+     */
+    public boolean loadsImages() {
+        return imagesEnabled;
+    }
+
+    /**
+     * @return whether local browsers keep their temporary profile directory on tmpfs
+     */
+    public boolean usesTmpfsProfileDirectory() {
+        return tmpfsProfileDirectory;
+    }
+}
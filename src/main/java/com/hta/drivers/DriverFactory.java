@@ -1,37 +1,165 @@
 package com.hta.drivers;
 
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.drivers.DriverLifecycleTimings.Phase;
 import com.hta.utils.dynamicWaits.ImplicitWaitUtils;
 import com.hta.utils.logging.ErrorHandler;
 import com.hta.utils.logging.LoggerUtils;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
 public class DriverFactory {
 
     private static final Logger logger = LoggerUtils.getLogger(DriverFactory.class);
     private static final DriverFactory instance = new DriverFactory();
 
     private static final ThreadLocal<WebDriver> threadLocalDriver = new ThreadLocal<>();
+    private static final ThreadLocal<Supplier<WebDriver>> threadLocalDriverSupplier = new ThreadLocal<>();
+
+    private final LazyWebDriver lazyDriver = new LazyWebDriver(this);
+    private final LongAdder lazySessionsStarted = new LongAdder();
+    private final LongAdder lazySessionsSkipped = new LongAdder();
+
+    // Pool mode configuration
+    private static final String DRIVER_POOL_ENABLED = "DRIVER_POOL_ENABLED";
+    private static final String DRIVER_POOL_MAX_USES = "DRIVER_POOL_MAX_USES";
+    private static final String BROWSER_PREFETCH_ENABLED = "BROWSER_PREFETCH_ENABLED";
+    private static final String THREAD_COUNT = "THREAD_COUNT";
+    private static final String BROWSER_LAUNCH_CONCURRENCY = "BROWSER_LAUNCH_CONCURRENCY";
+    private static final String BROWSER_LAUNCH_TIMEOUT = "BROWSER_LAUNCH_TIMEOUT";
+    private static final String BROWSER_LAUNCH_RETRIES = "BROWSER_LAUNCH_RETRIES";
 
     private DriverFactory() {}
 
+    /**
+     * Creates the launch governor on first use, after the configuration has been loaded.
+     */
+    private static final class LaunchHolder {
+        private static final BrowserLaunchGovernor governor = new BrowserLaunchGovernor(
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), BROWSER_LAUNCH_CONCURRENCY, Integer.class)
+                        .orElse(BrowserLaunchGovernor.DEFAULT_MAX_CONCURRENT_LAUNCHES),
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), BROWSER_LAUNCH_TIMEOUT, Integer.class)
+                        .orElse(BrowserLaunchGovernor.DEFAULT_LAUNCH_TIMEOUT_SECONDS),
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), BROWSER_LAUNCH_RETRIES, Integer.class)
+                        .orElse(BrowserLaunchGovernor.DEFAULT_LAUNCH_RETRIES));
+    }
+
+    /**
+     * Creates the session pool on first use, after the configuration has been loaded.
+     */
+    private static final class PoolHolder {
+        private static final boolean enabled = PropertiesConfigManager.getPropertyKeyFromCache(
+                PropertiesFileAlias.GLOBAL.getConfigurationAlias(), DRIVER_POOL_ENABLED, Boolean.class).orElse(false);
+
+        private static final WebDriverPool pool = new WebDriverPool(
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), DRIVER_POOL_MAX_USES, Integer.class)
+                        .orElse(WebDriverPool.DEFAULT_MAX_USES),
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), THREAD_COUNT, Integer.class)
+                        .orElse(1));
+    }
+
+    /**
+     * Creates the browser prefetcher on first use, after the configuration has been loaded.
+     */
+    private static final class PrefetchHolder {
+        private static final boolean enabled = PropertiesConfigManager.getPropertyKeyFromCache(
+                PropertiesFileAlias.GLOBAL.getConfigurationAlias(), BROWSER_PREFETCH_ENABLED, Boolean.class).orElse(false);
+
+        private static final BrowserPrefetcher prefetcher = new BrowserPrefetcher(
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), THREAD_COUNT, Integer.class)
+                        .orElse(1));
+    }
+
     public static DriverFactory getInstance() {
         return instance;
     }
 
+    /**
+     * Gets the current thread's session, starting it through the registered driver supplier
+     * if the thread has none yet.
+     */
     public WebDriver getDriver() {
         if (threadLocalDriver.get() == null) {
+            startRegisteredDriver();
+        }
+        WebDriver driver = threadLocalDriver.get();
+        if (driver == null) {
             logger.error("ThreadLocal driver not initialized for thread '{}'", Thread.currentThread().getName());
             throw new IllegalStateException("WebDriver is not initialized for thread: "
                     + Thread.currentThread().threadId());
         }
-        return threadLocalDriver.get();
+        SessionReaper.getInstance().touch(driver);
+        return driver;
+    }
+
+    /**
+     * Gets a driver that stands for the current thread's session without starting it, for page objects
+     * that are built before the test knows whether it needs a browser.
+     */
+    public WebDriver getLazyDriver() {
+        return lazyDriver;
+    }
+
+    /**
+     * Registers how the current thread's session is started, instead of starting it right away. The
+     * supplier runs on the first {@link #getDriver()} call and is expected to store the session it
+     * starts, as {@link BrowserFactory} does; a session it only returns is stored and configured here.
+     *
+     * @param driverSupplier starts the session and brings it to the state the test begins in
+     */
+    public void registerDriverSupplier(Supplier<WebDriver> driverSupplier) {
+        threadLocalDriverSupplier.set(driverSupplier);
+    }
+
+    /**
+     * Drops the current thread's registered driver supplier.
+     *
+     * @param retried whether the test attempt will run again, in which case an unused supplier is not
+     *                counted as a browser that was never needed, since the next attempt registers its own
+     * @return true if a supplier was registered and never needed, i.e. the test ran without a browser
+     */
+    public boolean cancelDriverSupplier(boolean retried) {
+        boolean unused = threadLocalDriverSupplier.get() != null;
+        threadLocalDriverSupplier.remove();
+        if (unused && !retried) {
+            lazySessionsSkipped.increment();
+        }
+        return unused;
     }
 
+    private void startRegisteredDriver() {
+        Supplier<WebDriver> driverSupplier = threadLocalDriverSupplier.get();
+        if (driverSupplier == null) {
+            return;
+        }
+        // Removed first, so the supplier's own getDriver() calls do not start it again
+        threadLocalDriverSupplier.remove();
+        long startTime = System.nanoTime();
+        WebDriver driver = driverSupplier.get();
+        if (threadLocalDriver.get() == null && driver != null) {
+            setDriver(driver);
+        }
+        lazySessionsStarted.increment();
+        logger.info("Started browser on first use in {} ms for thread: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), Thread.currentThread().threadId());
+    }
 
     public void setDriver(WebDriver driver) {
         try {
             threadLocalDriver.set(driver);
+            SessionReaper.getInstance().claim(driver);
             configureDriver();
         } catch (Exception error) {
             ErrorHandler.logError(error, "setDriver", "Failed to set driver");
@@ -39,29 +167,167 @@ public class DriverFactory {
         }
     }
 
+    /**
+     * Starts or obtains a browser session for the current thread. Depending on the configuration the
+     * session is leased from the warm pool, handed over by the prefetcher, or launched directly.
+     * Every launch, including background ones, goes through the launch governor.
+     *
+     * @param key      the launch configuration, see {@link WebDriverPool#sessionKey}
+     * @param launcher starts a new browser of that configuration
+     */
+    void startSession(String key, Supplier<WebDriver> launcher) {
+        startSession(key, launcher, UnaryOperator.identity());
+    }
+
+    /**
+     * Starts or obtains a browser session like {@link #startSession(String, Supplier)}, passing every
+     * launch through an admission step first, e.g. waiting for a free Grid slot. The admission wait is
+     * not counted against the launch timeout.
+     *
+     * @param key       the launch configuration, see {@link WebDriverPool#sessionKey}
+     * @param launcher  starts a new browser of that configuration
+     * @param admission wraps a launch in whatever has to happen before it may start
+     */
+    void startSession(String key, Supplier<WebDriver> launcher, UnaryOperator<Supplier<WebDriver>> admission) {
+        Supplier<WebDriver> governedLauncher = admission.apply(() -> getLaunchGovernor().launch(key, launcher));
+        Supplier<WebDriver> source = isPrefetchEnabled()
+                ? () -> getBrowserPrefetcher().acquire(key, governedLauncher)
+                : governedLauncher;
+        if (isPoolingEnabled()) {
+            setLeasedDriver(getDriverPool().lease(key, source));
+        } else {
+            setDriver(source.get());
+        }
+    }
+
+    /**
+     * Stores a session leased from the pool for the current thread. Only new sessions are configured,
+     * reused ones keep the configuration they got on their first lease.
+     */
+    void setLeasedDriver(WebDriverPool.Lease lease) {
+        try {
+            threadLocalDriver.set(lease.driver());
+            SessionReaper.getInstance().claim(lease.driver());
+            if (!lease.reused()) {
+                configureDriver();
+            }
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "setLeasedDriver", "Failed to set leased driver");
+            getDriverPool().discard(lease.driver());
+            threadLocalDriver.remove();
+            throw error;
+        }
+    }
+
     public void removeDriver() {
         threadLocalDriver.remove();
+        threadLocalDriverSupplier.remove();
     }
 
-    public void quitDriver() {
+    /**
+     * Whether browser sessions are leased from the warm session pool instead of being
+     * started and quit for every test. Set DRIVER_POOL_ENABLED to turn pool mode on.
+     */
+    public boolean isPoolingEnabled() {
+        return PoolHolder.enabled;
+    }
+
+    public WebDriverPool getDriverPool() {
+        return PoolHolder.pool;
+    }
+
+    public BrowserLaunchGovernor getLaunchGovernor() {
+        return LaunchHolder.governor;
+    }
+
+    /**
+     * Whether new browsers are started in the background ahead of demand.
+     * Set BROWSER_PREFETCH_ENABLED to turn prefetching on.
+     */
+    public boolean isPrefetchEnabled() {
+        return PrefetchHolder.enabled;
+    }
+
+    public BrowserPrefetcher getBrowserPrefetcher() {
+        return PrefetchHolder.prefetcher;
+    }
+
+    /**
+     * Hands the current thread's session back when the test is done: a pooled session is reset and
+     * returned to the pool, any other session is quit.
+     */
+    public void releaseDriver() {
         try {
+            threadLocalDriverSupplier.remove();
             WebDriver driver = threadLocalDriver.get();
             if (driver != null) {
-                driver.quit();  // Terminate the driver instance
+                threadLocalDriver.remove();
+                if (isPoolingEnabled() && getDriverPool().release(driver)) {
+                    SessionReaper.getInstance().unclaim(driver);
+                } else {
+                    DriverLifecycleTimings.getInstance().timeQuit(driver, driver::quit);
+                    SessionReaper.getInstance().forget(driver);
+                }
+                logger.info("Driver released for thread: {}", Thread.currentThread().threadId());
+            }
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "releaseDriver", "Failed to release driver");
+            throw error;
+        }
+    }
+
+    /**
+     * Quits the pooled and prefetched sessions that are idle and logs their statistics,
+     * for whichever of pool mode and prefetching is on, along with the launch statistics.
+     * Any session still open after that has leaked and is reaped.
+     */
+    public void shutdownIdleSessions() {
+        logger.info("Browsers started on first use: {}, registered but never needed: {}",
+                lazySessionsStarted.sum(), lazySessionsSkipped.sum());
+        getLaunchGovernor().logStatistics();
+        GridSessionScheduler.logAllStatistics();
+        if (isPrefetchEnabled()) {
+            getBrowserPrefetcher().shutdown();
+            getBrowserPrefetcher().logStatistics();
+        }
+        if (isPoolingEnabled()) {
+            getDriverPool().shutdown();
+            getDriverPool().logStatistics();
+        }
+        GridSessionScheduler.shutdownAll();
+        SessionReaper.getInstance().reapAll();
+        SessionReaper.getInstance().logStatistics();
+        DriverLifecycleTimings.getInstance().logStatistics();
+        GridClient.logAllStatistics();
+        GridClient.shutdownAll();
+    }
+
+    public void quitDriver() {
+        threadLocalDriverSupplier.remove();
+        WebDriver driver = threadLocalDriver.get();
+        try {
+            if (driver != null) {
+                // A pooled session that is quit directly must not be handed out again
+                if (!isPoolingEnabled() || !getDriverPool().discard(driver)) {
+                    DriverLifecycleTimings.getInstance().timeQuit(driver, driver::quit);  // Terminate the driver instance
+                }
                 threadLocalDriver.remove();  // Clear the ThreadLocal
+                SessionReaper.getInstance().forget(driver);
                 logger.info("Driver quit and removed successfully for thread: {}", Thread.currentThread().threadId());
             }
         } catch (Exception error) {
             ErrorHandler.logError(error, "quitDriver", "Failed to quit driver");
+            // The session is unusable either way; make sure its processes do not outlive it
+            threadLocalDriver.remove();
+            SessionReaper.getInstance().reapFailedQuit(driver);
             throw error;
         }
     }
 
-
-
     public void navigateToUrl(String url) {
         try{
-            getDriver().get(url);
+            WebDriver driver = getDriver();
+            DriverLifecycleTimings.getInstance().timeNavigation(driver, () -> driver.get(url));
             logger.info("Navigated to URL: {}", url);
         } catch (Exception error){
             ErrorHandler.logError(error, "navigateToUrl", "Failed to navigate to url");
@@ -80,8 +346,11 @@ public class DriverFactory {
 
     public void configureDriver() {
         try {
-            getDriver().manage().window().maximize();
-            ImplicitWaitUtils.applyImplicitWait(getDriver());
+            WebDriver driver = getDriver();
+            DriverLifecycleTimings.getInstance().time(driver, Phase.CONFIGURE, () -> {
+                driver.manage().window().maximize();
+                ImplicitWaitUtils.applyImplicitWait(driver);
+            });
         } catch (Exception error){
             ErrorHandler.logError(error, "configureDriver", "Failed to configure driver");
             throw error;
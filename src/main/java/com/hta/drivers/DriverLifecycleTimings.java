@@ -0,0 +1,197 @@
+package com.hta.drivers;
+
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Times the phases of every browser session's life, into histograms per mode (local or grid) and browser.
+ * <p>
+ * A local launch is split into resolving the driver binary, spawning the driver process and the new-session
+ * handshake; a Grid launch into the wait for a free slot and the handshake. After that, every session records
+ * {@link DriverFactory#configureDriver()}, its first navigation and its quit. Comparing the phases shows
+ * whether a slow suite is waiting on the Grid, on browser startup or on the application itself.
+ */
+public final class DriverLifecycleTimings {
+
+    private static final Logger logger = LoggerUtils.getLogger(DriverLifecycleTimings.class);
+    private static final DriverLifecycleTimings instance = new DriverLifecycleTimings();
+
+    public enum Phase {
+        DRIVER_RESOLUTION("driver resolution"),
+        PROCESS_SPAWN("process spawn"),
+        GRID_QUEUE("grid queue"),
+        SESSION_HANDSHAKE("session handshake"),
+        CONFIGURE("configure"),
+        FIRST_NAVIGATION("first navigation"),
+        QUIT("quit");
+
+        private final String description;
+
+        Phase(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private record HistogramKey(String mode, String browserName, Phase phase) {
+    }
+
+    private final Map<HistogramKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    // Weak keys, so sessions quit outside DriverFactory, e.g. by the pool, do not stay behind
+    private final Map<WebDriver, Launch> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The timings of one session, from its launch until it is quit.
+     */
+    public final class Launch {
+        private final String mode;
+        private final String browserName;
+        private final Map<Phase, Long> phaseNanos = Collections.synchronizedMap(new EnumMap<>(Phase.class));
+        private volatile boolean navigated;
+
+        private Launch(String mode, String browserName) {
+            this.mode = mode;
+            this.browserName = browserName.toLowerCase();
+        }
+
+        /**
+         * Runs one phase of the launch and records how long it took, whether it succeeded or not.
+         */
+        public <T> T time(Phase phase, Supplier<T> step) {
+            long startTime = System.nanoTime();
+            try {
+                return step.get();
+            } finally {
+                record(phase, System.nanoTime() - startTime);
+            }
+        }
+
+        public void record(Phase phase, long nanos) {
+            phaseNanos.merge(phase, nanos, Long::sum);
+            DriverLifecycleTimings.this.record(mode, browserName, phase, nanos);
+        }
+
+        /**
+         * Ties the launch to the session it produced, so later phases of the session are recorded under it.
+         */
+        public WebDriver attach(WebDriver driver) {
+            sessions.put(driver, this);
+            return driver;
+        }
+
+        private String summary() {
+            synchronized (phaseNanos) {
+                return phaseNanos.entrySet().stream()
+                        .map(entry -> entry.getKey().getDescription() + " "
+                                + TimeUnit.NANOSECONDS.toMillis(entry.getValue()) + " ms")
+                        .collect(Collectors.joining(", "));
+            }
+        }
+    }
+
+    private DriverLifecycleTimings() {}
+
+    public static DriverLifecycleTimings getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts timing a new session.
+     *
+     * @param mode        local or grid
+     * @param browserName the browser being launched
+     * @return the launch to record the phases in
+     */
+    public Launch newLaunch(String mode, String browserName) {
+        return new Launch(mode, browserName);
+    }
+
+    /**
+     * Records a phase that is not tied to one session, such as a wait for a free Grid slot.
+     */
+    public void record(String mode, String browserName, Phase phase, long nanos) {
+        histograms.computeIfAbsent(new HistogramKey(mode, browserName.toLowerCase(), phase),
+                ignored -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Runs a phase of an existing session and records it, if the session's launch was timed.
+     */
+    public <T> T time(WebDriver driver, Phase phase, Supplier<T> step) {
+        Launch launch = sessions.get(driver);
+        return launch == null ? step.get() : launch.time(phase, step);
+    }
+
+    public void time(WebDriver driver, Phase phase, Runnable step) {
+        time(driver, phase, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a navigation and records it if it is the session's first.
+     */
+    public void timeNavigation(WebDriver driver, Runnable navigation) {
+        Launch launch = sessions.get(driver);
+        if (launch == null || launch.navigated) {
+            navigation.run();
+            return;
+        }
+        launch.navigated = true;
+        time(driver, Phase.FIRST_NAVIGATION, navigation);
+    }
+
+    /**
+     * Runs the quit of a session, records it and logs the session's phases.
+     */
+    public void timeQuit(WebDriver driver, Runnable quit) {
+        Launch launch = sessions.remove(driver);
+        if (launch == null) {
+            quit.run();
+            return;
+        }
+        try {
+            launch.time(Phase.QUIT, () -> {
+                quit.run();
+                return null;
+            });
+        } finally {
+            logger.debug("{} {} session: {}", launch.mode, launch.browserName, launch.summary());
+        }
+    }
+
+    public void logStatistics() {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        logger.info("Driver lifecycle timings (ms):");
+        histograms.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(HistogramKey::mode)
+                        .thenComparing(HistogramKey::browserName)
+                        .thenComparing(HistogramKey::phase)))
+                .forEach(entry -> {
+                    HistogramKey key = entry.getKey();
+                    LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+                    logger.info("  {} {} {}: n={} avg {} p50 {} p90 {} p99 {} max {}",
+                            key.mode(), key.browserName(), key.phase().getDescription(), snapshot.count(),
+                            Math.round(snapshot.averageMillis()), Math.round(snapshot.p50Millis()),
+                            Math.round(snapshot.p90Millis()), Math.round(snapshot.p99Millis()),
+                            Math.round(snapshot.maxMillis()));
+                });
+    }
+}
@@ -0,0 +1,204 @@
+package com.hta.drivers;
+
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the {@link RemoteWebDriver} sessions of a Grid over one shared HTTP client.
+ * <p>
+ * By default every remote session builds its own HTTP client and closes it on quit, so each new session
+ * starts with no open connections and pays TCP and TLS setup again. Sessions created here share a single
+ * client per Grid, configured once from the global config: connect and read timeouts
+ * (GRID_CONNECT_TIMEOUT, GRID_READ_TIMEOUT), and the keep-alive and size of the JDK connection pool
+ * (GRID_KEEP_ALIVE_TIMEOUT, GRID_CONNECTION_POOL_SIZE). Quitting a session leaves the shared client
+ * and its pooled connections open for the next one; {@link #shutdownAll()} closes them at the end of the run.
+ * <p>
+ * The keep-alive and pool size are JDK-wide settings that are read when the first JDK HTTP client is
+ * created, so they only apply when the Grid client is set up before any other, and never override
+ * values already given on the command line.
+ * <p>
+ * Every command goes through {@link GridCommandLatencies}, whose per-command timings are logged with
+ * the other session statistics at the end of the run.
+ */
+public final class GridClient {
+
+    private static final Logger logger = LoggerUtils.getLogger(GridClient.class);
+
+    public static final long DEFAULT_CONNECT_TIMEOUT_SECONDS = 10;
+    public static final long DEFAULT_READ_TIMEOUT_SECONDS = 180;
+    public static final long DEFAULT_KEEP_ALIVE_TIMEOUT_SECONDS = 120;
+    public static final int DEFAULT_CONNECTION_POOL_SIZE = 0;
+
+    private static final String GRID_CONNECT_TIMEOUT = "GRID_CONNECT_TIMEOUT";
+    private static final String GRID_READ_TIMEOUT = "GRID_READ_TIMEOUT";
+    private static final String GRID_KEEP_ALIVE_TIMEOUT = "GRID_KEEP_ALIVE_TIMEOUT";
+    private static final String GRID_CONNECTION_POOL_SIZE = "GRID_CONNECTION_POOL_SIZE";
+
+    private static final String JDK_KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    private static final String JDK_POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+
+    private static final Map<String, GridClient> clients = new ConcurrentHashMap<>();
+
+    private final ClientConfig clientConfig;
+    private final SharedClientFactory clientFactory = new SharedClientFactory();
+    private final GridCommandLatencies commandLatencies = new GridCommandLatencies();
+
+    /**
+     * @param gridUrl        the Grid URL sessions are created at
+     * @param connectTimeout how long opening a connection to the Grid may take
+     * @param readTimeout    how long a command may wait for the Grid's response
+     */
+    public GridClient(String gridUrl, Duration connectTimeout, Duration readTimeout) {
+        try {
+            this.clientConfig = ClientConfig.defaultConfig()
+                    .baseUri(new URI(gridUrl))
+                    .connectionTimeout(connectTimeout)
+                    .readTimeout(readTimeout)
+                    .withFilter(commandLatencies);
+        } catch (URISyntaxException error) {
+            throw new RuntimeException("Invalid Selenium Grid URL: " + gridUrl, error);
+        }
+    }
+
+    /**
+     * Gets the shared client of a Grid, configured from the global config on first use.
+     *
+     * @param gridUrl the Grid URL
+     * @return the client of that Grid
+     */
+    public static GridClient forGrid(String gridUrl) {
+        return clients.computeIfAbsent(gridUrl, url -> {
+            applyConnectionPoolSettings();
+            return new GridClient(url,
+                    Duration.ofSeconds(readSetting(GRID_CONNECT_TIMEOUT, DEFAULT_CONNECT_TIMEOUT_SECONDS)),
+                    Duration.ofSeconds(readSetting(GRID_READ_TIMEOUT, DEFAULT_READ_TIMEOUT_SECONDS)));
+        });
+    }
+
+    /**
+     * Logs the command latencies of every Grid client in use.
+     */
+    public static void logAllStatistics() {
+        clients.values().forEach(client -> client.getCommandLatencies().logStatistics());
+    }
+
+    /**
+     * Closes the shared connections of every Grid client. Call once all remote sessions have quit.
+     */
+    public static void shutdownAll() {
+        clients.values().forEach(GridClient::shutdown);
+    }
+
+    /**
+     * Starts a session on the Grid over the shared client.
+     *
+     * @param capabilities the requested capabilities
+     * @return the remote session
+     */
+    public RemoteWebDriver createDriver(Capabilities capabilities) {
+        return new RemoteWebDriver(new HttpCommandExecutor(Map.of(), clientConfig, clientFactory), capabilities);
+    }
+
+    public ClientConfig getClientConfig() {
+        return clientConfig;
+    }
+
+    public GridCommandLatencies getCommandLatencies() {
+        return commandLatencies;
+    }
+
+    public void shutdown() {
+        clientFactory.closeAll();
+    }
+
+    private static long readSetting(String key, long defaultValue) {
+        return PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), key, Long.class)
+                .orElse(defaultValue);
+    }
+
+    private static void applyConnectionPoolSettings() {
+        if (System.getProperty(JDK_KEEP_ALIVE_PROPERTY) == null) {
+            System.setProperty(JDK_KEEP_ALIVE_PROPERTY,
+                    String.valueOf(readSetting(GRID_KEEP_ALIVE_TIMEOUT, DEFAULT_KEEP_ALIVE_TIMEOUT_SECONDS)));
+        }
+        if (System.getProperty(JDK_POOL_SIZE_PROPERTY) == null) {
+            System.setProperty(JDK_POOL_SIZE_PROPERTY,
+                    String.valueOf(readSetting(GRID_CONNECTION_POOL_SIZE, DEFAULT_CONNECTION_POOL_SIZE)));
+        }
+    }
+
+    /**
+     * Hands every session of a Grid the same underlying client, wrapped so that a session quitting
+     * does not close it for the others.
+     */
+    private static final class SharedClientFactory implements HttpClient.Factory {
+
+        private final HttpClient.Factory delegateFactory = HttpClient.Factory.createDefault();
+        private final Map<URI, HttpClient> sharedClients = new ConcurrentHashMap<>();
+
+        @Override
+        public HttpClient createClient(ClientConfig config) {
+            HttpClient shared = sharedClients.computeIfAbsent(config.baseUri(), ignored -> {
+                logger.info("Opening shared Grid HTTP client for {}", config.baseUri());
+                return delegateFactory.createClient(config);
+            });
+            return new SessionClient(shared);
+        }
+
+        private void closeAll() {
+            sharedClients.values().forEach(client -> {
+                try {
+                    client.close();
+                } catch (Exception error) {
+                    ErrorHandler.logError(error, "closeAll", "Failed to close shared Grid HTTP client");
+                }
+            });
+            sharedClients.clear();
+        }
+    }
+
+    /**
+     * The view of the shared client that one session gets; closing it leaves the shared client open.
+     */
+    private record SessionClient(HttpClient shared) implements HttpClient {
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return shared.execute(request);
+        }
+
+        @Override
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            return shared.executeAsync(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return shared.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // Shared with the other sessions of the Grid, closed by GridClient.shutdown()
+        }
+    }
+}
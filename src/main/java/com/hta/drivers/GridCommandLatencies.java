@@ -0,0 +1,125 @@
+package com.hta.drivers;
+
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every WebDriver command sent to the Grid, per command.
+ * <p>
+ * Commands are told apart by HTTP method and path, with session, element and shadow root ids
+ * replaced by placeholders, e.g. {@code POST /session/{id}/element/{id}/click}. The time covers the
+ * whole round trip, so it includes connection setup when a command could not reuse a pooled connection.
+ */
+public final class GridCommandLatencies implements Filter {
+
+    private static final Logger logger = LoggerUtils.getLogger(GridCommandLatencies.class);
+
+    private static final String ID_PLACEHOLDER = "{id}";
+    private static final Set<String> ID_PARENTS = Set.of("session", "element", "shadow");
+    private static final int LOGGED_COMMANDS = 10;
+
+    private final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+
+    private static final class Latency {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Latency of one command.
+     *
+     * @param command       the HTTP method and normalized path
+     * @param count         times the command was sent
+     * @param failures      times it failed or returned an error status
+     * @param averageMillis average round trip
+     * @param maxMillis     longest round trip
+     * @param totalSeconds  time spent in the command altogether
+     */
+    public record CommandStatistics(String command, long count, long failures,
+                                    double averageMillis, double maxMillis, double totalSeconds) {
+    }
+
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return request -> {
+            Latency latency = latencies.computeIfAbsent(commandOf(request), ignored -> new Latency());
+            long startTime = System.nanoTime();
+            boolean failed = true;
+            try {
+                HttpResponse response = next.execute(request);
+                failed = response.getStatus() >= 400;
+                return response;
+            } finally {
+                long elapsed = System.nanoTime() - startTime;
+                latency.count.increment();
+                latency.totalNanos.add(elapsed);
+                latency.maxNanos.accumulateAndGet(elapsed, Math::max);
+                if (failed) {
+                    latency.failures.increment();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the statistics of every command sent so far, most total time first
+     */
+    public List<CommandStatistics> getStatistics() {
+        return latencies.entrySet().stream()
+                .map(entry -> {
+                    Latency latency = entry.getValue();
+                    long count = latency.count.sum();
+                    long totalNanos = latency.totalNanos.sum();
+                    return new CommandStatistics(entry.getKey(), count, latency.failures.sum(),
+                            count == 0 ? 0 : totalNanos / 1e6 / count, latency.maxNanos.get() / 1e6, totalNanos / 1e9);
+                })
+                .sorted(Comparator.comparingDouble(CommandStatistics::totalSeconds).reversed())
+                .toList();
+    }
+
+    public void logStatistics() {
+        List<CommandStatistics> statistics = getStatistics();
+        if (statistics.isEmpty()) {
+            return;
+        }
+        logger.info("Grid command latencies, top {} of {} command(s) by total time:",
+                Math.min(LOGGED_COMMANDS, statistics.size()), statistics.size());
+        statistics.stream().limit(LOGGED_COMMANDS).forEach(command -> logger.info(
+                "  {}: {} call(s), {} failed, avg {} ms / max {} ms, total {} s",
+                command.command(), command.count(), command.failures(), Math.round(command.averageMillis()),
+                Math.round(command.maxMillis()), Math.round(command.totalSeconds())));
+    }
+
+    /**
+     * Builds the command name of a request: its method and its path with ids replaced.
+     */
+    static String commandOf(HttpRequest request) {
+        String[] segments = request.getUri().split("\\?", 2)[0].split("/");
+        StringBuilder command = new StringBuilder(request.getMethod().name()).append(' ');
+        boolean idFollows = false;
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            // The active element is the one path segment after "element" that is not an id
+            boolean isId = idFollows && !"active".equals(segment);
+            command.append('/').append(isId ? ID_PLACEHOLDER : segment);
+            idFollows = !isId && ID_PARENTS.contains(segment);
+        }
+        return command.toString();
+    }
+}
@@ -0,0 +1,424 @@
+package com.hta.drivers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.utils.jacksonUtils.JsonConverter;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Queues new Grid session requests on the client until the Grid has a free slot for them.
+ * <p>
+ * The scheduler polls the Grid's {@code /status} endpoint and reads, for every node that is up, its
+ * idle slots per browser and how many more sessions it may run: its {@code maxSessions} minus the
+ * sessions already running on it. A node offers {@code maxSessions} slots for each of its browsers but
+ * runs only {@code maxSessions} sessions in total, so that headroom is shared by all of its browsers.
+ * Session requests wait in a client-side queue ordered by priority, then by arrival. A request is let
+ * through once some node has both an idle slot of its browser and headroom left, after subtracting the
+ * sessions let through to that node since the last poll was taken. Requests that wait longer than the
+ * queue timeout fail on the client instead of timing out somewhere inside the Grid's own queue.
+ * <p>
+ * When the status cannot be read, the scheduler lets requests through and leaves the queueing to
+ * the Grid, so an unreachable status endpoint never blocks a run that could otherwise proceed.
+ */
+public final class GridSessionScheduler {
+
+    private static final Logger logger = LoggerUtils.getLogger(GridSessionScheduler.class);
+
+    public static final int NORMAL_PRIORITY = 0;
+    public static final int HIGH_PRIORITY = 10;
+
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 1000;
+    public static final long DEFAULT_QUEUE_TIMEOUT_SECONDS = 300;
+
+    private static final String GRID_STATUS_POLL_MILLIS = "GRID_STATUS_POLL_MILLIS";
+    private static final String GRID_SESSION_QUEUE_TIMEOUT = "GRID_SESSION_QUEUE_TIMEOUT";
+    private static final Duration STATUS_REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Map<String, GridSessionScheduler> schedulers = new ConcurrentHashMap<>();
+
+    private final URI statusUri;
+    private final long queueTimeoutMillis;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(STATUS_REQUEST_TIMEOUT).build();
+    private final ScheduledExecutorService poller;
+
+    // Guarded by this
+    private final NavigableSet<SessionRequest> queue = new TreeSet<>();
+    private List<NodeCapacity> nodes = List.of();
+    private final List<Reservation> reservations = new ArrayList<>();
+    private StatusState statusState = StatusState.PENDING;
+    private long sequence;
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    private enum StatusState {
+        // No poll has finished yet, requests wait for the first one
+        PENDING,
+        // The last poll succeeded, requests wait for free slots
+        KNOWN,
+        // The last poll failed, requests go straight to the Grid
+        UNREACHABLE
+    }
+
+    /**
+     * Capacity of one Grid node at the time of a poll.
+     *
+     * @param id        the node id
+     * @param headroom  sessions the node may still start: its maxSessions minus the sessions running on it
+     * @param idleSlots slots without a session, per browser
+     */
+    record NodeCapacity(String id, int headroom, Map<String, Integer> idleSlots) {
+
+        NodeCapacity {
+            idleSlots = Map.copyOf(idleSlots);
+        }
+    }
+
+    /**
+     * A slot taken by a request that was let through, counted against its node until a poll has seen
+     * the new session. The node is the one the scheduler picked; the Grid may place the session
+     * elsewhere, but the total taken across the Grid stays right.
+     */
+    private static final class Reservation {
+        private final String nodeId;
+        private final String browserName;
+        private boolean created;
+        private long createdAtNanos;
+
+        private Reservation(String nodeId, String browserName) {
+            this.nodeId = nodeId;
+            this.browserName = browserName;
+        }
+    }
+
+    private static final class SessionRequest implements Comparable<SessionRequest> {
+        private final String browserName;
+        private final int priority;
+        private final long order;
+        private final CompletableFuture<Reservation> grant = new CompletableFuture<>();
+
+        private SessionRequest(String browserName, int priority, long order) {
+            this.browserName = browserName;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(SessionRequest other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Scheduler counters.
+     *
+     * @param queueDepth        requests currently waiting
+     * @param maxQueueDepth     most requests waiting at once
+     * @param granted           requests let through to the Grid
+     * @param timedOut          requests that gave up waiting
+     * @param averageWaitMillis average time a request waited for a slot
+     * @param maxWaitMillis     longest time a request waited for a slot
+     * @param freeSlots         free slots per browser at the last poll, minus sessions let through since;
+     *                          browsers on the same node share its free slots, so these do not add up
+     */
+    public record Statistics(int queueDepth, long maxQueueDepth, long granted, long timedOut,
+                             double averageWaitMillis, double maxWaitMillis, Map<String, Integer> freeSlots) {
+    }
+
+    /**
+     * Creates a scheduler and starts polling the Grid status.
+     *
+     * @param gridUrl            the Grid URL sessions are created at; a trailing /wd/hub is ignored
+     * @param pollIntervalMillis how often to read the Grid status
+     * @param queueTimeoutMillis how long a request may wait for a free slot
+     */
+    public GridSessionScheduler(String gridUrl, long pollIntervalMillis, long queueTimeoutMillis) {
+        this.statusUri = statusUriOf(gridUrl);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.poller = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("grid-status-poller").factory());
+        poller.scheduleWithFixedDelay(this::pollStatus, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the shared scheduler of a Grid, configured from GRID_STATUS_POLL_MILLIS and
+     * GRID_SESSION_QUEUE_TIMEOUT (seconds) on first use.
+     *
+     * @param gridUrl the Grid URL
+     * @return the scheduler of that Grid
+     */
+    public static GridSessionScheduler forGrid(String gridUrl) {
+        return schedulers.computeIfAbsent(gridUrl, url -> new GridSessionScheduler(url,
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                                PropertiesFileAlias.GLOBAL.getConfigurationAlias(), GRID_STATUS_POLL_MILLIS, Long.class)
+                        .orElse(DEFAULT_POLL_INTERVAL_MILLIS),
+                TimeUnit.SECONDS.toMillis(PropertiesConfigManager.getPropertyKeyFromCache(
+                                PropertiesFileAlias.GLOBAL.getConfigurationAlias(), GRID_SESSION_QUEUE_TIMEOUT, Long.class)
+                        .orElse(DEFAULT_QUEUE_TIMEOUT_SECONDS))));
+    }
+
+    /**
+     * Logs the statistics of every Grid scheduler in use.
+     */
+    public static void logAllStatistics() {
+        schedulers.values().forEach(GridSessionScheduler::logStatistics);
+    }
+
+    /**
+     * Stops the status polling of every Grid scheduler. Call once no more sessions will be created;
+     * a later {@link #forGrid} starts a new scheduler.
+     */
+    public static void shutdownAll() {
+        schedulers.values().forEach(GridSessionScheduler::shutdown);
+        schedulers.clear();
+    }
+
+    /**
+     * Waits for a free slot of the browser, then creates the session.
+     *
+     * @param browserName the browser the session needs
+     * @param priority    higher priorities are let through first, e.g. {@link #HIGH_PRIORITY} for retries
+     * @param creator     creates the session once a slot is free
+     * @return the created session
+     * @throws WebDriverException if no slot became free within the queue timeout
+     */
+    public WebDriver createSession(String browserName, int priority, Supplier<WebDriver> creator) {
+        Reservation reservation = awaitSlot(normalize(browserName), priority);
+        WebDriver driver = null;
+        try {
+            driver = creator.get();
+            return driver;
+        } finally {
+            synchronized (this) {
+                if (driver == null) {
+                    reservations.remove(reservation);
+                } else {
+                    // Keep counting the slot as taken until a poll has seen the new session
+                    reservation.created = true;
+                    reservation.createdAtNanos = System.nanoTime();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops polling the Grid status. Requests still waiting, or made afterwards, go straight to the Grid.
+     */
+    public void shutdown() {
+        poller.shutdownNow();
+        synchronized (this) {
+            statusState = StatusState.UNREACHABLE;
+            dispatch();
+        }
+    }
+
+    public synchronized Statistics getStatistics() {
+        long grantedCount = granted.sum();
+        Map<String, Integer> available = new TreeMap<>();
+        for (NodeCapacity node : nodes) {
+            node.idleSlots().keySet().forEach(browser -> available.merge(browser, available(node, browser), Integer::sum));
+        }
+        return new Statistics(queue.size(), maxQueueDepth.get(), grantedCount, timedOut.sum(),
+                grantedCount == 0 ? 0 : waitNanos.sum() / 1e6 / grantedCount, maxWaitNanos.get() / 1e6, available);
+    }
+
+    public void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("Grid session queue: {} granted, {} timed out, max depth {}, wait avg {} ms / max {} ms, free slots {}",
+                statistics.granted(), statistics.timedOut(), statistics.maxQueueDepth(),
+                Math.round(statistics.averageWaitMillis()), Math.round(statistics.maxWaitMillis()), statistics.freeSlots());
+    }
+
+    private Reservation awaitSlot(String browser, int priority) {
+        long startTime = System.nanoTime();
+        SessionRequest request;
+        Reservation reservation = null;
+        synchronized (this) {
+            request = new SessionRequest(browser, priority, sequence++);
+            queue.add(request);
+            maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+            dispatch();
+        }
+
+        try {
+            reservation = request.grant.get(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException error) {
+            synchronized (this) {
+                // The grant may have raced with the timeout, in which case the slot is taken after all
+                if (!request.grant.isDone()) {
+                    queue.remove(request);
+                    timedOut.increment();
+                    throw new WebDriverException("Timed out after " + queueTimeoutMillis
+                            + " ms waiting for a free " + browser + " slot on the Grid");
+                }
+                reservation = request.grant.join();
+            }
+        } catch (InterruptedException error) {
+            synchronized (this) {
+                if (!request.grant.isDone()) {
+                    queue.remove(request);
+                } else {
+                    reservations.remove(request.grant.join());
+                }
+            }
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for a Grid slot", error);
+        } catch (ExecutionException error) {
+            throw new WebDriverException("Failed waiting for a Grid slot", error.getCause());
+        }
+
+        long waited = System.nanoTime() - startTime;
+        granted.increment();
+        waitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (waited > TimeUnit.SECONDS.toNanos(1)) {
+            logger.info("Waited {} ms for a free {} slot on the Grid", TimeUnit.NANOSECONDS.toMillis(waited), browser);
+        }
+        return reservation;
+    }
+
+    /**
+     * Lets queued requests through, highest priority first, while a node has a free slot for their browser.
+     * A request whose browser is full does not hold back requests for other browsers.
+     */
+    private synchronized void dispatch() {
+        Iterator<SessionRequest> requests = queue.iterator();
+        while (requests.hasNext()) {
+            SessionRequest request = requests.next();
+            String nodeId;
+            if (statusState == StatusState.UNREACHABLE) {
+                nodeId = null;
+            } else if (statusState == StatusState.KNOWN) {
+                Optional<NodeCapacity> node = nodes.stream()
+                        .filter(candidate -> available(candidate, request.browserName) > 0)
+                        .findFirst();
+                if (node.isEmpty()) {
+                    continue;
+                }
+                nodeId = node.get().id();
+            } else {
+                continue;
+            }
+            requests.remove();
+            Reservation reservation = new Reservation(nodeId, request.browserName);
+            reservations.add(reservation);
+            request.grant.complete(reservation);
+        }
+    }
+
+    /**
+     * Counts the sessions of a browser a node can still take: the fewer of its idle slots of that browser
+     * and its headroom, each minus the sessions let through to the node since the last poll.
+     */
+    private int available(NodeCapacity node, String browser) {
+        int reservedOnNode = 0;
+        int reservedOfBrowser = 0;
+        for (Reservation reservation : reservations) {
+            if (node.id().equals(reservation.nodeId)) {
+                reservedOnNode++;
+                if (browser.equals(reservation.browserName)) {
+                    reservedOfBrowser++;
+                }
+            }
+        }
+        return Math.min(node.idleSlots().getOrDefault(browser, 0) - reservedOfBrowser, node.headroom() - reservedOnNode);
+    }
+
+    private void pollStatus() {
+        long pollStart = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(statusUri).timeout(STATUS_REQUEST_TIMEOUT).GET().build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+            List<NodeCapacity> polledNodes = parseNodes(JsonConverter.getObjectMapper().readTree(response.body()));
+            synchronized (this) {
+                // A poll that finishes after shutdown must not start holding requests back again
+                if (poller.isShutdown()) {
+                    return;
+                }
+                if (statusState != StatusState.KNOWN) {
+                    logger.info("Reading Grid capacity from {}: {}", statusUri, polledNodes);
+                }
+                nodes = polledNodes;
+                reservations.removeIf(reservation -> reservation.created && reservation.createdAtNanos - pollStart < 0);
+                statusState = StatusState.KNOWN;
+                dispatch();
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+        } catch (Exception error) {
+            synchronized (this) {
+                if (statusState != StatusState.UNREACHABLE) {
+                    logger.warn("Failed to read Grid status from {}, leaving queueing to the Grid: {}",
+                            statusUri, error.getMessage());
+                }
+                statusState = StatusState.UNREACHABLE;
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * Reads the capacity of the nodes that are up. A node without maxSessions may run a session in
+     * every slot.
+     */
+    static List<NodeCapacity> parseNodes(JsonNode status) {
+        List<NodeCapacity> capacities = new ArrayList<>();
+        int index = 0;
+        for (JsonNode node : status.path("value").path("nodes")) {
+            index++;
+            if (!"UP".equalsIgnoreCase(node.path("availability").asText())) {
+                continue;
+            }
+            Map<String, Integer> idleSlots = new HashMap<>();
+            int running = 0;
+            for (JsonNode slot : node.path("slots")) {
+                String browser = normalize(slot.path("stereotype").path("browserName").asText());
+                boolean idle = slot.path("session").isMissingNode() || slot.path("session").isNull();
+                idleSlots.merge(browser, idle ? 1 : 0, Integer::sum);
+                running += idle ? 0 : 1;
+            }
+            int maxSessions = node.path("maxSessions").asInt(node.path("slots").size());
+            capacities.add(new NodeCapacity(node.path("id").asText("node-" + index),
+                    Math.max(0, maxSessions - running), idleSlots));
+        }
+        return capacities;
+    }
+
+    private static String normalize(String browserName) {
+        String browser = browserName.toLowerCase(Locale.ROOT);
+        return browser.equals("microsoftedge") ? "edge" : browser;
+    }
+
+    private static URI statusUriOf(String gridUrl) {
+        String base = gridUrl.trim().replaceAll("/+$", "").replaceAll("/wd/hub$", "");
+        return URI.create(base + "/status");
+    }
+}
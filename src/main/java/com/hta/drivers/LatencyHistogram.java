@@ -0,0 +1,73 @@
+package com.hta.drivers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations over fixed buckets from 1 ms to 2 minutes.
+ * <p>
+ * The buckets follow a 1-2-5 series, which is fine enough to tell a 300 ms handshake from a 3 s one,
+ * and percentiles are reported as the upper bound of the bucket they fall in.
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BUCKET_BOUNDS_MILLIS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 120_000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * A summary of the recorded durations.
+     *
+     * @param count         recorded durations
+     * @param averageMillis average duration
+     * @param p50Millis     median, as the upper bound of its bucket
+     * @param p90Millis     90th percentile, as the upper bound of its bucket
+     * @param p99Millis     99th percentile, as the upper bound of its bucket
+     * @param maxMillis     longest duration
+     */
+    public record Snapshot(long count, double averageMillis, double p50Millis, double p90Millis,
+                           double p99Millis, double maxMillis) {
+    }
+
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MILLIS.length && millis >= BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        long recorded = count.sum();
+        double maxMillis = maxNanos.get() / 1e6;
+        return new Snapshot(recorded, recorded == 0 ? 0 : totalNanos.sum() / 1e6 / recorded,
+                percentile(0.50, recorded, maxMillis), percentile(0.90, recorded, maxMillis),
+                percentile(0.99, recorded, maxMillis), maxMillis);
+    }
+
+    private double percentile(double quantile, long recorded, double maxMillis) {
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * recorded);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_BOUNDS_MILLIS.length; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank) {
+                // No bound is reported above what was actually seen
+                return Math.min(BUCKET_BOUNDS_MILLIS[bucket], maxMillis);
+            }
+        }
+        return maxMillis;
+    }
+}
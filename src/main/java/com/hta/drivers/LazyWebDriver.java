@@ -0,0 +1,113 @@
+package com.hta.drivers;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link WebDriver} that forwards every call to the calling thread's session in {@link DriverFactory}.
+ * <p>
+ * Page objects can be built with it before a browser exists; the session is only started, through the
+ * thread's registered driver supplier, when a page first talks to the browser. Quitting it quits the
+ * thread's session through {@link DriverFactory#quitDriver()}.
+ */
+public final class LazyWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot, WrapsDriver {
+
+    private final DriverFactory driverFactory;
+
+    LazyWebDriver(DriverFactory driverFactory) {
+        this.driverFactory = driverFactory;
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driverFactory.getDriver();
+    }
+
+    @Override
+    public void get(String url) {
+        getWrappedDriver().get(url);
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return getWrappedDriver().getCurrentUrl();
+    }
+
+    @Override
+    public String getTitle() {
+        return getWrappedDriver().getTitle();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return getWrappedDriver().findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return getWrappedDriver().findElement(by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return getWrappedDriver().getPageSource();
+    }
+
+    @Override
+    public void close() {
+        getWrappedDriver().close();
+    }
+
+    @Override
+    public void quit() {
+        driverFactory.quitDriver();
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return getWrappedDriver().getWindowHandles();
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return getWrappedDriver().getWindowHandle();
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return getWrappedDriver().switchTo();
+    }
+
+    @Override
+    public Navigation navigate() {
+        return getWrappedDriver().navigate();
+    }
+
+    @Override
+    public Options manage() {
+        return getWrappedDriver().manage();
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return ((JavascriptExecutor) getWrappedDriver()).executeScript(script, args);
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return ((JavascriptExecutor) getWrappedDriver()).executeAsyncScript(script, args);
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return ((TakesScreenshot) getWrappedDriver()).getScreenshotAs(target);
+    }
+}
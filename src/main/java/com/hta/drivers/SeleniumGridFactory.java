@@ -2,21 +2,16 @@ package com.hta.drivers;
 
 import com.hta.config.properties.PropertiesConfigManager;
 import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.drivers.DriverLifecycleTimings.Phase;
 import com.hta.utils.logging.ErrorHandler;
 import com.hta.utils.logging.LoggerUtils;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeOptions;
-import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.remote.DesiredCapabilities;
-import org.openqa.selenium.remote.RemoteWebDriver;
 
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URL;
+import java.util.function.Supplier;
 
-import static com.hta.drivers.BrowserOptionsUtils.*;
+import static com.hta.drivers.BrowserOptionsUtils.getCapabilities;
 
 
 public class SeleniumGridFactory {
@@ -24,19 +19,39 @@ public class SeleniumGridFactory {
     private static final Logger logger = LoggerUtils.getLogger(SeleniumGridFactory.class);
     private static final String SELENIUM_GRID_URL = "SELENIUM_GRID_URL";
 
-    String GRID_URL = PropertiesConfigManager.getPropertyKeyFromCache(
-            PropertiesFileAlias.GLOBAL.getConfigurationAlias(),
-            SELENIUM_GRID_URL);
+    /**
+     * Reads the Grid URL once, on first use after the configuration has been loaded.
+     */
+    private static final class GridUrlHolder {
+        private static final String GRID_URL = PropertiesConfigManager.getPropertyKeyFromCache(
+                PropertiesFileAlias.GLOBAL.getConfigurationAlias(),
+                SELENIUM_GRID_URL).trim();
+    }
 
     public void initializeRemoteBrowser(String browserName, String... arguments) {
+        initializeRemoteBrowser(browserName, GridSessionScheduler.NORMAL_PRIORITY, arguments);
+    }
+
+    /**
+     * Starts a remote browser once the Grid has a free slot for it.
+     *
+     * @param browserName the browser to start
+     * @param priority    the place in the client-side Grid queue, higher goes first
+     * @param arguments   the browser launch arguments
+     */
+    public void initializeRemoteBrowser(String browserName, int priority, String... arguments) {
         try {
-            WebDriver driver = createRemoteDriver(browserName, arguments);
             DriverFactory driverFactory = DriverFactory.getInstance();
 
-            if (driverFactory != null) {
-                driverFactory.setDriver(driver);
-            } else {
+            if (driverFactory == null) {
                 logger.warn("DriverFactory instance is null. WebDriver will not be stored.");
+            } else {
+                // The client comes first so that its connection pool settings apply to the scheduler too
+                GridClient gridClient = GridClient.forGrid(GridUrlHolder.GRID_URL);
+                GridSessionScheduler scheduler = GridSessionScheduler.forGrid(GridUrlHolder.GRID_URL);
+                driverFactory.startSession(WebDriverPool.sessionKey("grid", browserName, arguments),
+                        () -> createRemoteDriver(gridClient, browserName, arguments),
+                        launch -> () -> createSessionWhenAdmitted(scheduler, browserName, priority, launch));
             }
 
             logger.info("Initialized remote {} browser on Selenium Grid", browserName);
@@ -49,30 +64,27 @@ public class SeleniumGridFactory {
         }
     }
 
-    private WebDriver createRemoteDriver(String browserName, String... arguments) {
-        try {
-            URL gridUrl = URI.create(GRID_URL).toURL();
-            DesiredCapabilities capabilities = new DesiredCapabilities();
+    /**
+     * Waits in the Grid queue, recording the wait, and then launches the session.
+     */
+    private static WebDriver createSessionWhenAdmitted(GridSessionScheduler scheduler, String browserName,
+                                                       int priority, Supplier<WebDriver> launch) {
+        long queueStart = System.nanoTime();
+        return scheduler.createSession(browserName, priority, () -> {
+            DriverLifecycleTimings.getInstance().record("grid", browserName, Phase.GRID_QUEUE,
+                    System.nanoTime() - queueStart);
+            return launch.get();
+        });
+    }
 
-            switch (browserName.toLowerCase()) {
-                case "chrome":
-                    ChromeOptions chromeOptions = getChromeOptions(arguments);
-                    capabilities.merge(chromeOptions);
-                    return new RemoteWebDriver(gridUrl, capabilities);
-                case "firefox":
-                    FirefoxOptions firefoxOptions = getFirefoxOptions(arguments);
-                    capabilities.merge(firefoxOptions);
-                    return new RemoteWebDriver(gridUrl, capabilities);
-                case "edge":
-                    EdgeOptions edgeOptions = getEdgeOptions(arguments);
-                    capabilities.merge(edgeOptions);
-                    return new RemoteWebDriver(gridUrl, capabilities);
-                default:
-                    throw new IllegalArgumentException("Unsupported browser: " + browserName);
-            }
-        } catch (MalformedURLException e) {
-            logger.error("Invalid Selenium Grid URL: {}", GRID_URL, e);
-            throw new RuntimeException("Invalid Selenium Grid URL", e);
+    private WebDriver createRemoteDriver(GridClient gridClient, String browserName, String... arguments) {
+        try {
+            DriverLifecycleTimings.Launch launch = DriverLifecycleTimings.getInstance().newLaunch("grid", browserName);
+            Capabilities capabilities = getCapabilities(browserName, arguments);
+            WebDriver driver = launch.attach(launch.time(Phase.SESSION_HANDSHAKE,
+                    () -> gridClient.createDriver(capabilities)));
+            SessionReaper.getInstance().trackRemote(driver, browserName);
+            return driver;
         } catch (Exception error) {
             ErrorHandler.logError(error, "createRemoteDriver", "Initialization failed");
             throw new RuntimeException("Remote browser initialization failed", error);
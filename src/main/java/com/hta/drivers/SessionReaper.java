@@ -0,0 +1,388 @@
+package com.hta.drivers;
+
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of every browser session the framework starts and quits the ones that were left behind.
+ * <p>
+ * Sessions are tracked from the moment {@link BrowserFactory} or {@link SeleniumGridFactory} creates them,
+ * together with the driver process a local session runs in. {@link DriverFactory} records which thread
+ * holds a session and when it last used it. A background sweep reaps sessions whose holding thread has
+ * died, and sessions that have not been used for SESSION_IDLE_TIMEOUT_MINUTES. Sessions parked in the
+ * pool or the prefetcher have no holder and are left alone until the end of the run.
+ * <p>
+ * Reaping first asks the session to quit, then kills whatever is left of the driver process and the
+ * browser processes below it. Sessions still open when the suite ends, or when the JVM exits, are reaped
+ * the same way. The number of leaked sessions and the resident memory of the processes they held are
+ * reported with the other session statistics; memory can only be read on Linux.
+ */
+public final class SessionReaper {
+
+    private static final Logger logger = LoggerUtils.getLogger(SessionReaper.class);
+    private static final SessionReaper instance = new SessionReaper();
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 30;
+    public static final long DEFAULT_SWEEP_INTERVAL_SECONDS = 30;
+
+    private static final String SESSION_IDLE_TIMEOUT_MINUTES = "SESSION_IDLE_TIMEOUT_MINUTES";
+    private static final String SESSION_REAPER_INTERVAL_SECONDS = "SESSION_REAPER_INTERVAL_SECONDS";
+    private static final long QUIT_TIMEOUT_SECONDS = 10;
+    private static final long KILL_GRACE_MILLIS = 2000;
+    private static final String PORT_ARGUMENT = "--port=";
+
+    private final Map<WebDriver, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final LongAdder tracked = new LongAdder();
+    private final LongAdder reapedOwnerless = new LongAdder();
+    private final LongAdder reapedIdle = new LongAdder();
+    private final LongAdder reapedFailedQuit = new LongAdder();
+    private final LongAdder reapedAtShutdown = new LongAdder();
+    private final LongAdder killedProcesses = new LongAdder();
+    private final LongAdder reclaimedBytes = new LongAdder();
+
+    /**
+     * Why a session was reaped.
+     */
+    public enum Reason {
+        OWNERLESS("its thread has ended"),
+        IDLE("it has been idle too long"),
+        FAILED_QUIT("quitting it failed"),
+        SHUTDOWN("it was still open at shutdown");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * A tracked session. The holder and last use are written by the holding thread and read by the sweep.
+     */
+    private static final class TrackedSession {
+        private final WebDriver driver;
+        private final String mode;
+        private final String browserName;
+        private final ProcessHandle driverProcess;
+        private volatile Thread holder;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private TrackedSession(WebDriver driver, String mode, String browserName, ProcessHandle driverProcess) {
+            this.driver = driver;
+            this.mode = mode;
+            this.browserName = browserName;
+            this.driverProcess = driverProcess;
+        }
+
+        private String describe() {
+            return mode + " " + browserName + (driverProcess == null ? "" : " (driver pid " + driverProcess.pid() + ")");
+        }
+    }
+
+    /**
+     * Reaper counters.
+     *
+     * @param tracked           sessions tracked since the start of the run
+     * @param open              sessions currently tracked
+     * @param reapedOwnerless   sessions reaped because their thread ended
+     * @param reapedIdle        sessions reaped after the idle timeout
+     * @param reapedFailedQuit  sessions reaped because quitting them failed
+     * @param reapedAtShutdown  sessions still open at the end of the suite or the JVM
+     * @param killedProcesses   driver and browser processes that had to be killed
+     * @param reclaimedMegabytes resident memory of the processes of reaped sessions
+     */
+    public record Statistics(long tracked, int open, long reapedOwnerless, long reapedIdle,
+                             long reapedFailedQuit, long reapedAtShutdown, long killedProcesses,
+                             double reclaimedMegabytes) {
+
+        public long leaked() {
+            return reapedOwnerless + reapedIdle + reapedFailedQuit + reapedAtShutdown;
+        }
+    }
+
+    private SessionReaper() {}
+
+    public static SessionReaper getInstance() {
+        return instance;
+    }
+
+    /**
+     * Reads the reaper settings on first use, after the configuration has been loaded.
+     */
+    private static final class SettingsHolder {
+        private static final long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(
+                PropertiesConfigManager.getPropertyKeyFromCache(
+                                PropertiesFileAlias.GLOBAL.getConfigurationAlias(), SESSION_IDLE_TIMEOUT_MINUTES, Long.class)
+                        .orElse(DEFAULT_IDLE_TIMEOUT_MINUTES));
+        private static final long sweepIntervalSeconds = PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), SESSION_REAPER_INTERVAL_SECONDS, Long.class)
+                .orElse(DEFAULT_SWEEP_INTERVAL_SECONDS);
+    }
+
+    /**
+     * Tracks a local session and the driver process its service started.
+     *
+     * @param driver      the new session
+     * @param browserName the browser it runs
+     * @param service     the driver service the session was started with
+     */
+    public void trackLocal(WebDriver driver, String browserName, DriverService service) {
+        track(driver, "local", browserName, findDriverProcess(service).orElse(null));
+    }
+
+    /**
+     * Tracks a Grid session, which has no local processes.
+     *
+     * @param driver      the new session
+     * @param browserName the browser it runs
+     */
+    public void trackRemote(WebDriver driver, String browserName) {
+        track(driver, "grid", browserName, null);
+    }
+
+    /**
+     * Records that the current thread holds the session from now on.
+     */
+    public void claim(WebDriver driver) {
+        TrackedSession session = driver == null ? null : sessions.get(driver);
+        if (session != null) {
+            session.holder = Thread.currentThread();
+            session.lastUsedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records that the session was parked in the pool and has no holder until it is leased again.
+     */
+    public void unclaim(WebDriver driver) {
+        TrackedSession session = driver == null ? null : sessions.get(driver);
+        if (session != null) {
+            session.holder = null;
+        }
+    }
+
+    /**
+     * Records a use of the session, which keeps it from being reaped as idle.
+     */
+    public void touch(WebDriver driver) {
+        TrackedSession session = driver == null ? null : sessions.get(driver);
+        if (session != null) {
+            session.lastUsedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stops tracking a session that was quit normally.
+     */
+    public void forget(WebDriver driver) {
+        if (driver != null) {
+            sessions.remove(driver);
+        }
+    }
+
+    /**
+     * Reaps a session whose quit failed, so its processes do not outlive it.
+     */
+    public void reapFailedQuit(WebDriver driver) {
+        TrackedSession session = driver == null ? null : sessions.remove(driver);
+        if (session != null) {
+            reap(session, Reason.FAILED_QUIT);
+        }
+    }
+
+    /**
+     * Reaps every session still tracked. Call once all tests have released their sessions and the pool
+     * and prefetcher have quit theirs, so whatever is left has leaked.
+     */
+    public void reapAll() {
+        sweepQuitSessions();
+        for (TrackedSession session : List.copyOf(sessions.values())) {
+            if (sessions.remove(session.driver, session)) {
+                reap(session, Reason.SHUTDOWN);
+            }
+        }
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(tracked.sum(), sessions.size(), reapedOwnerless.sum(), reapedIdle.sum(),
+                reapedFailedQuit.sum(), reapedAtShutdown.sum(), killedProcesses.sum(),
+                reclaimedBytes.sum() / (1024.0 * 1024.0));
+    }
+
+    public void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("Browser sessions: {} tracked, {} leaked ({} ownerless, {} idle, {} failed quit, {} at shutdown), "
+                        + "{} process(es) killed, {} MB reclaimed",
+                statistics.tracked(), statistics.leaked(), statistics.reapedOwnerless(), statistics.reapedIdle(),
+                statistics.reapedFailedQuit(), statistics.reapedAtShutdown(), statistics.killedProcesses(),
+                Math.round(statistics.reclaimedMegabytes()));
+    }
+
+    private void track(WebDriver driver, String mode, String browserName, ProcessHandle driverProcess) {
+        startIfNeeded();
+        sessions.put(driver, new TrackedSession(driver, mode, browserName, driverProcess));
+        tracked.increment();
+    }
+
+    private void startIfNeeded() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("session-reaper").factory());
+        long interval = SettingsHolder.sweepIntervalSeconds;
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(Thread.ofPlatform().name("session-reaper-shutdown").unstarted(() -> {
+            if (!sessions.isEmpty()) {
+                reapAll();
+                logStatistics();
+            }
+        }));
+    }
+
+    private void sweep() {
+        try {
+            sweepQuitSessions();
+            long now = System.nanoTime();
+            for (TrackedSession session : List.copyOf(sessions.values())) {
+                Thread holder = session.holder;
+                Reason reason = null;
+                if (holder != null && !holder.isAlive()) {
+                    reason = Reason.OWNERLESS;
+                } else if (holder != null && now - session.lastUsedNanos > SettingsHolder.idleTimeoutNanos) {
+                    reason = Reason.IDLE;
+                }
+                if (reason != null && sessions.remove(session.driver, session)) {
+                    reap(session, reason);
+                }
+            }
+        } catch (Exception error) {
+            logger.warn("Session sweep failed: {}", error.getMessage());
+        }
+    }
+
+    /**
+     * Drops sessions that were quit somewhere other than through {@link DriverFactory}, e.g. by the pool.
+     */
+    private void sweepQuitSessions() {
+        sessions.values().removeIf(session -> session.driver instanceof RemoteWebDriver remoteDriver
+                && remoteDriver.getSessionId() == null
+                && (session.driverProcess == null || !session.driverProcess.isAlive()));
+    }
+
+    private void reap(TrackedSession session, Reason reason) {
+        switch (reason) {
+            case OWNERLESS -> reapedOwnerless.increment();
+            case IDLE -> reapedIdle.increment();
+            case FAILED_QUIT -> reapedFailedQuit.increment();
+            case SHUTDOWN -> reapedAtShutdown.increment();
+        }
+        logger.warn("Reaping {} session because {}", session.describe(), reason.description);
+
+        // Measured before quitting, while the processes are still there
+        List<ProcessHandle> processTree = processTreeOf(session.driverProcess);
+        long residentBytes = processTree.stream().mapToLong(SessionReaper::residentBytes).sum();
+
+        if (reason != Reason.FAILED_QUIT) {
+            quitQuietly(session);
+        }
+        killAll(processTree);
+        reclaimedBytes.add(residentBytes);
+    }
+
+    private static void quitQuietly(TrackedSession session) {
+        try {
+            CompletableFuture.runAsync(session.driver::quit).get(QUIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+        } catch (Exception error) {
+            logger.warn("Failed to quit leaked {} session, killing its processes: {}", session.describe(),
+                    error.getMessage());
+        }
+    }
+
+    private void killAll(List<ProcessHandle> processTree) {
+        List<ProcessHandle> alive = processTree.stream().filter(ProcessHandle::isAlive).toList();
+        if (alive.isEmpty()) {
+            return;
+        }
+        alive.forEach(ProcessHandle::destroy);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(KILL_GRACE_MILLIS);
+        while (System.nanoTime() < deadline && alive.stream().anyMatch(ProcessHandle::isAlive)) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        alive.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+        killedProcesses.add(alive.size());
+    }
+
+    /**
+     * The driver process and everything below it, children before their parents.
+     */
+    private static List<ProcessHandle> processTreeOf(ProcessHandle driverProcess) {
+        List<ProcessHandle> processTree = new ArrayList<>();
+        if (driverProcess != null && driverProcess.isAlive()) {
+            driverProcess.descendants().forEach(processTree::addFirst);
+            processTree.add(driverProcess);
+        }
+        return processTree;
+    }
+
+    /**
+     * Finds the driver process a service started among the children of this JVM, by the port the
+     * service passed it on its command line.
+     */
+    private static Optional<ProcessHandle> findDriverProcess(DriverService service) {
+        try {
+            String portArgument = PORT_ARGUMENT + service.getUrl().getPort();
+            return ProcessHandle.current().children()
+                    .filter(process -> process.info().arguments()
+                            .map(arguments -> List.of(arguments).contains(portArgument))
+                            .orElse(false))
+                    .findFirst();
+        } catch (Exception error) {
+            logger.warn("Failed to find the driver process of {}: {}", service.getUrl(), error.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static long residentBytes(ProcessHandle process) {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException error) {
+            logger.debug("No resident memory for pid {}: {}", process.pid(), error.getMessage());
+        }
+        return 0;
+    }
+}
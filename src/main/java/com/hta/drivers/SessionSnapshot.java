@@ -0,0 +1,114 @@
+package com.hta.drivers;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The client-side state of a logged-in browser session: its cookies, local and session storage,
+ * and the page the application landed on after login.
+ * <p>
+ * Restoring a snapshot into another browser of the same application logs it in without going
+ * through the login form. A snapshot is only as good as the server-side session behind it, so
+ * {@link #restoreInto(WebDriver)} reports whether the landing page could actually be reached.
+ *
+ * @param landingUrl     the page shown after login
+ * @param cookies        the cookies of the application's domain
+ * @param localStorage   the local storage of the application's origin
+ * @param sessionStorage the session storage of the application's origin
+ * @param capturedAt     when the snapshot was taken
+ */
+public record SessionSnapshot(String landingUrl,
+                              Set<Cookie> cookies,
+                              Map<String, String> localStorage,
+                              Map<String, String> sessionStorage,
+                              Instant capturedAt) {
+
+    private static final String READ_STORAGE_SCRIPT =
+            "return [Object.assign({}, window.localStorage), Object.assign({}, window.sessionStorage)];";
+    private static final String WRITE_STORAGE_SCRIPT = """
+            window.localStorage.clear();
+            window.sessionStorage.clear();
+            for (const [key, value] of Object.entries(arguments[0])) { window.localStorage.setItem(key, value); }
+            for (const [key, value] of Object.entries(arguments[1])) { window.sessionStorage.setItem(key, value); }
+            """;
+
+    /**
+     * Takes a snapshot of a browser that has just logged in and is showing the landing page.
+     *
+     * @param driver the logged-in browser
+     * @return the snapshot
+     */
+    public static SessionSnapshot capture(WebDriver driver) {
+        Map<String, String> localStorage = Map.of();
+        Map<String, String> sessionStorage = Map.of();
+        if (driver instanceof JavascriptExecutor javascriptExecutor
+                && javascriptExecutor.executeScript(READ_STORAGE_SCRIPT) instanceof List<?> storage) {
+            localStorage = toStringMap(storage.get(0));
+            sessionStorage = toStringMap(storage.get(1));
+        }
+        return new SessionSnapshot(driver.getCurrentUrl(), Set.copyOf(driver.manage().getCookies()),
+                localStorage, sessionStorage, Instant.now());
+    }
+
+    /**
+     * Whether the snapshot is older than the given age, or holds a cookie that has expired since.
+     *
+     * @param maxAge how long a snapshot may be reused
+     * @return true if the snapshot should not be restored any more
+     */
+    public boolean isExpired(Duration maxAge) {
+        Date now = new Date();
+        return capturedAt.plus(maxAge).isBefore(now.toInstant())
+                || cookies.stream().anyMatch(cookie -> cookie.getExpiry() != null && cookie.getExpiry().before(now));
+    }
+
+    /**
+     * Replaces the state of a browser with the snapshot and opens the landing page.
+     *
+     * @param driver the browser to log in
+     * @return true if the landing page was reached, false if the application redirected elsewhere,
+     * typically back to the login page because the server-side session has ended
+     */
+    public boolean restoreInto(WebDriver driver) {
+        // Cookies and storage can only be set for the origin the browser is currently on
+        String origin = originOf(landingUrl);
+        String currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !origin.equals(originOf(currentUrl))) {
+            driver.get(origin);
+        }
+
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        if (driver instanceof JavascriptExecutor javascriptExecutor) {
+            javascriptExecutor.executeScript(WRITE_STORAGE_SCRIPT, localStorage, sessionStorage);
+        }
+
+        driver.get(landingUrl);
+        return landingUrl.equals(driver.getCurrentUrl());
+    }
+
+    private static String originOf(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority() + "/";
+    }
+
+    private static Map<String, String> toStringMap(Object storage) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (storage instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> values.put(String.valueOf(key), String.valueOf(value)));
+        }
+        return Map.copyOf(values);
+    }
+}
@@ -0,0 +1,371 @@
+package com.hta.drivers;
+
+import com.hta.utils.dynamicWaits.ImplicitWaitUtils;
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URI;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A pool of warm browser sessions that are leased to tests and reset when they are returned,
+ * so browser startup is paid once per session rather than once per test.
+ * <p>
+ * Sessions are grouped by a key describing how they were launched (browser, mode and arguments)
+ * and only handed out for the same key. Before a leased session goes back to the pool, its windows are
+ * replaced by one fresh tab, and cookies and the storage of every origin it visited are cleared through
+ * the DevTools protocol, which Chrome and Edge offer both locally and on the Grid. Other browsers cannot
+ * be reset that fully, so their sessions are quit instead of pooled. A session is also quit when it has
+ * served {@code maxUses} tests, when the reset fails, or when the pool already holds {@code maxIdlePerKey}
+ * idle sessions of its kind. Idle sessions are health-checked with a cheap round trip before they are
+ * leased again.
+ */
+public final class WebDriverPool {
+
+    private static final Logger logger = LoggerUtils.getLogger(WebDriverPool.class);
+
+    public static final int DEFAULT_MAX_USES = 20;
+
+    private static final List<String> WEB_SCHEMES = List.of("http", "https");
+
+    private final int maxUses;
+    private final int maxIdlePerKey;
+    private final Map<String, IdleSessions> idleSessions = new ConcurrentHashMap<>();
+    private final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder reuses = new LongAdder();
+    private final LongAdder launches = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+
+    /**
+     * A pooled session. The use count is only touched by the thread currently holding the lease.
+     */
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private final String key;
+        // Null when the browser has no DevTools access and so cannot be fully reset
+        private final HasCdp cdp;
+        private int uses;
+
+        private PooledSession(WebDriver driver, String key) {
+            this.driver = driver;
+            this.key = key;
+            this.cdp = cdpOf(driver);
+        }
+    }
+
+    /**
+     * The idle sessions of one key. The size is reserved before a session is added, so concurrent
+     * releases cannot push the pool past its limit between checking the size and adding.
+     */
+    private static final class IdleSessions {
+        private final Deque<PooledSession> sessions = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    /**
+     * A leased session.
+     *
+     * @param driver the session's driver
+     * @param reused whether the session served an earlier test, in which case it is already configured
+     */
+    public record Lease(WebDriver driver, boolean reused) {
+    }
+
+    /**
+     * Pool usage counters.
+     *
+     * @param leases                 sessions handed out
+     * @param reuses                 leases served by an already running session
+     * @param launches               sessions started by the pool
+     * @param recycled               sessions quit after reaching the use limit
+     * @param discarded              sessions quit because they could not be reset or failed a health check
+     * @param averageLeaseWaitMillis average time from lease request to a usable session
+     * @param maxLeaseWaitMillis     longest time from lease request to a usable session
+     * @param idle                   sessions currently waiting in the pool
+     */
+    public record Statistics(long leases, long reuses, long launches, long recycled, long discarded,
+                             double averageLeaseWaitMillis, double maxLeaseWaitMillis, int idle) {
+
+        public double reuseRatio() {
+            return leases == 0 ? 0 : (double) reuses / leases;
+        }
+    }
+
+    public WebDriverPool(int maxUses, int maxIdlePerKey) {
+        if (maxUses < 1 || maxIdlePerKey < 1) {
+            throw new IllegalArgumentException("Pool limits must be positive: maxUses=" + maxUses
+                    + ", maxIdlePerKey=" + maxIdlePerKey);
+        }
+        this.maxUses = maxUses;
+        this.maxIdlePerKey = maxIdlePerKey;
+    }
+
+    /**
+     * Builds the key sessions are pooled under. Sessions are only shared between requests with the same key.
+     *
+     * @param mode        how the session runs, e.g. local or grid
+     * @param browserName the browser name
+     * @param arguments   the browser launch arguments
+     * @return the pool key
+     */
+    public static String sessionKey(String mode, String browserName, String... arguments) {
+        return mode + "|" + browserName.toLowerCase() + "|" + (arguments == null ? "" : String.join(" ", arguments));
+    }
+
+    /**
+     * Leases a healthy idle session for the key, or launches a new one when there is none.
+     *
+     * @param key      the session key, see {@link #sessionKey}
+     * @param launcher starts a new session when the pool has none to offer
+     * @return the leased session
+     */
+    public Lease lease(String key, Supplier<WebDriver> launcher) {
+        long startTime = System.nanoTime();
+
+        PooledSession session;
+        while ((session = pollIdle(key)) != null && !isHealthy(session)) {
+            discarded.increment();
+            quit(session.driver, "failed health check");
+        }
+
+        boolean reused = session != null;
+        if (!reused) {
+            session = new PooledSession(launcher.get(), key);
+            launches.increment();
+        }
+        session.uses++;
+        leasedSessions.put(session.driver, session);
+
+        long waitNanos = System.nanoTime() - startTime;
+        leases.increment();
+        if (reused) {
+            reuses.increment();
+        }
+        leaseWaitNanos.add(waitNanos);
+        maxLeaseWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        logger.debug("Leased {} session for '{}' (use {} of {}) in {} ms", reused ? "pooled" : "new", key,
+                session.uses, maxUses, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        return new Lease(session.driver, reused);
+    }
+
+    /**
+     * Returns a leased session to the pool after resetting its state, or quits it if it reached its
+     * use limit, cannot be reset or is not needed any more.
+     *
+     * @param driver the driver of the leased session
+     * @return false if the driver was not leased from this pool, in which case it is left untouched
+     */
+    public boolean release(WebDriver driver) {
+        PooledSession session = leasedSessions.remove(driver);
+        if (session == null) {
+            return false;
+        }
+
+        if (shutdown) {
+            quit(driver, "pool is shut down");
+        } else if (session.uses >= maxUses) {
+            recycled.increment();
+            quit(driver, "reached " + maxUses + " uses");
+        } else if (session.cdp == null) {
+            discarded.increment();
+            quit(driver, "browser state cannot be fully reset");
+        } else if (!resetState(session)) {
+            discarded.increment();
+            quit(driver, "state reset failed");
+        } else {
+            IdleSessions idle = idleSessionsFor(session.key);
+            if (idle.size.incrementAndGet() > maxIdlePerKey) {
+                idle.size.decrementAndGet();
+                quit(driver, "pool is full");
+            } else {
+                // Most recently used first, so the warmest sessions are leased again and the rest age out
+                idle.sessions.offerFirst(session);
+                idleCount.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quits a leased session without returning it to the pool, e.g. after a browser error.
+     *
+     * @param driver the driver of the leased session
+     * @return false if the driver was not leased from this pool, in which case it is left untouched
+     */
+    public boolean discard(WebDriver driver) {
+        PooledSession session = leasedSessions.remove(driver);
+        if (session == null) {
+            return false;
+        }
+        discarded.increment();
+        quit(driver, "discarded after an error");
+        return true;
+    }
+
+    public boolean isLeased(WebDriver driver) {
+        return leasedSessions.containsKey(driver);
+    }
+
+    /**
+     * Quits all idle sessions. Sessions still leased are quit when they are released.
+     */
+    public void shutdown() {
+        shutdown = true;
+        idleSessions.values().forEach(idle -> {
+            PooledSession session;
+            while ((session = idle.sessions.pollFirst()) != null) {
+                idle.size.decrementAndGet();
+                idleCount.decrementAndGet();
+                quit(session.driver, "pool is shut down");
+            }
+        });
+    }
+
+    public Statistics getStatistics() {
+        long leaseCount = leases.sum();
+        return new Statistics(leaseCount, reuses.sum(), launches.sum(), recycled.sum(), discarded.sum(),
+                leaseCount == 0 ? 0 : leaseWaitNanos.sum() / 1e6 / leaseCount,
+                maxLeaseWaitNanos.get() / 1e6, idleCount.get());
+    }
+
+    public void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("WebDriver pool: {} lease(s), {} reused ({}%), {} launched, {} recycled, {} discarded, "
+                        + "lease wait avg {} ms / max {} ms",
+                statistics.leases(), statistics.reuses(), Math.round(statistics.reuseRatio() * 100),
+                statistics.launches(), statistics.recycled(), statistics.discarded(),
+                Math.round(statistics.averageLeaseWaitMillis()), Math.round(statistics.maxLeaseWaitMillis()));
+    }
+
+    private IdleSessions idleSessionsFor(String key) {
+        return idleSessions.computeIfAbsent(key, ignored -> new IdleSessions());
+    }
+
+    private PooledSession pollIdle(String key) {
+        IdleSessions idle = idleSessions.get(key);
+        PooledSession session = idle == null ? null : idle.sessions.pollFirst();
+        if (session != null) {
+            idle.size.decrementAndGet();
+            idleCount.decrementAndGet();
+        }
+        return session;
+    }
+
+    private static boolean isHealthy(PooledSession session) {
+        try {
+            if (session.driver instanceof RemoteWebDriver remoteDriver && remoteDriver.getSessionId() == null) {
+                return false;
+            }
+            return session.driver.getWindowHandle() != null;
+        } catch (Exception error) {
+            logger.warn("Pooled session for '{}' failed its health check: {}", session.key, error.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets DevTools access to a session. Local Chrome and Edge drivers have it; Grid sessions of those
+     * browsers get it through the augmenter. Other browsers have none.
+     */
+    private static HasCdp cdpOf(WebDriver driver) {
+        if (driver instanceof HasCdp cdp) {
+            return cdp;
+        }
+        if (!(driver instanceof RemoteWebDriver)) {
+            return null;
+        }
+        try {
+            return new Augmenter().augment(driver) instanceof HasCdp cdp ? cdp : null;
+        } catch (Exception error) {
+            logger.warn("Failed to get DevTools access to the pooled session: {}", error.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Brings a session back to a blank state: one fresh tab on about:blank, no cookies, and no storage
+     * for any origin a window navigated to or a cookie belonged to.
+     */
+    private static boolean resetState(PooledSession session) {
+        WebDriver driver = session.driver;
+        try {
+            // Storage is per origin, so collect every origin before the windows and their history go
+            Set<String> origins = new TreeSet<>();
+            Set<String> oldWindows = driver.getWindowHandles();
+            for (String window : oldWindows) {
+                driver.switchTo().window(window);
+                Map<String, Object> history = session.cdp.executeCdpCommand("Page.getNavigationHistory", Map.of());
+                for (Object entry : (List<?>) history.get("entries")) {
+                    addOrigin(origins, (String) ((Map<?, ?>) entry).get("url"));
+                }
+            }
+            Map<String, Object> cookies = session.cdp.executeCdpCommand("Storage.getCookies", Map.of());
+            for (Object cookie : (List<?>) cookies.get("cookies")) {
+                String domain = ((String) ((Map<?, ?>) cookie).get("domain")).replaceFirst("^\\.", "");
+                WEB_SCHEMES.forEach(scheme -> addOrigin(origins, scheme + "://" + domain));
+            }
+
+            // A new tab has no history and no session storage; the old windows take theirs with them
+            driver.switchTo().newWindow(WindowType.TAB);
+            String keptWindow = driver.getWindowHandle();
+            for (String window : oldWindows) {
+                driver.switchTo().window(window).close();
+            }
+            driver.switchTo().window(keptWindow);
+
+            for (String origin : origins) {
+                session.cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+            }
+            session.cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            ImplicitWaitUtils.applyImplicitWait(driver);
+            return true;
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "resetState", "Failed to reset pooled browser session");
+            return false;
+        }
+    }
+
+    private static void addOrigin(Set<String> origins, String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null && WEB_SCHEMES.contains(uri.getScheme())) {
+                origins.add(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()));
+            }
+        } catch (IllegalArgumentException error) {
+            // Not a URL with an origin, e.g. about:blank or a data: URL
+        }
+    }
+
+    private static void quit(WebDriver driver, String reason) {
+        try {
+            DriverLifecycleTimings.getInstance().timeQuit(driver, driver::quit);
+            logger.info("Quit pooled browser session: {}", reason);
+        } catch (Exception error) {
+            logger.warn("Failed to quit pooled browser session ({}): {}", reason, error.getMessage());
+        }
+    }
+}
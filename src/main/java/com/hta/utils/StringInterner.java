@@ -0,0 +1,115 @@
+package com.hta.utils;
+
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide dictionary that collapses repeated test data values into one canonical instance.
+ * <p>
+ * The Excel and JSON loaders pass every string value through {@link #intern(String)} as it is read,
+ * so a value such as "Sydney" that appears in thousands of rows and fixtures is held once.
+ * Unlike {@link String#intern()}, the dictionary lives on the regular heap and keeps statistics
+ * on how much memory deduplication saved.
+ * <p>
+ * Only short values are interned, and the dictionary stops growing at a fixed size, so unique
+ * free-text values cannot turn it into a leak.
+ */
+public final class StringInterner {
+
+    private static final Logger logger = LoggerUtils.getLogger(StringInterner.class);
+
+    private static final int MAX_INTERNED_LENGTH = 256;
+    private static final int MAX_ENTRIES = 100_000;
+
+    // Compressed-oops sizes: String object, byte[] header, then the payload padded to 8 bytes
+    private static final int STRING_OBJECT_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final Map<String, String> canonicalValues = new ConcurrentHashMap<>();
+    private static final LongAdder lookups = new LongAdder();
+    private static final LongAdder duplicates = new LongAdder();
+    private static final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Snapshot of the interning statistics.
+     *
+     * @param lookups    The number of values passed through the dictionary
+     * @param duplicates The number of values replaced by an existing instance
+     * @param distinct   The number of canonical values held
+     * @param bytesSaved The estimated heap bytes saved by the replaced values
+     */
+    public record Statistics(long lookups, long duplicates, int distinct, long bytesSaved) {
+    }
+
+    private StringInterner() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    /**
+     * Returns the canonical instance of a value, registering it if it was not seen before.
+     *
+     * @param value The value to intern; may be null
+     * @return The canonical instance, or the value itself if it is null, too long or the dictionary is full
+     */
+    public static String intern(String value) {
+        if (value == null || value.length() > MAX_INTERNED_LENGTH) {
+            return value;
+        }
+        lookups.increment();
+
+        String canonical = canonicalValues.get(value);
+        if (canonical == null) {
+            if (canonicalValues.size() >= MAX_ENTRIES) {
+                return value;
+            }
+            canonical = canonicalValues.putIfAbsent(value, value);
+            if (canonical == null) {
+                return value;
+            }
+        }
+
+        if (canonical != value) {
+            duplicates.increment();
+            bytesSaved.add(retainedSize(value));
+        }
+        return canonical;
+    }
+
+    /**
+     * Retrieves the current interning statistics.
+     *
+     * @return A snapshot of the statistics
+     */
+    public static Statistics getStatistics() {
+        return new Statistics(lookups.sum(), duplicates.sum(), canonicalValues.size(), bytesSaved.sum());
+    }
+
+    /**
+     * Logs the current interning statistics.
+     */
+    public static void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("String interning: {} lookup(s), {} duplicate(s) collapsed into {} value(s), ~{} KB saved",
+                statistics.lookups(), statistics.duplicates(), statistics.distinct(), statistics.bytesSaved() / 1024);
+    }
+
+    /**
+     * Clears the dictionary and resets the statistics.
+     */
+    public static void clear() {
+        canonicalValues.clear();
+        lookups.reset();
+        duplicates.reset();
+        bytesSaved.reset();
+    }
+
+    private static long retainedSize(String value) {
+        boolean latin1 = value.chars().allMatch(character -> character <= 0xFF);
+        long payload = latin1 ? value.length() : 2L * value.length();
+        return STRING_OBJECT_BYTES + ((ARRAY_HEADER_BYTES + payload + 7) & ~7L);
+    }
+}
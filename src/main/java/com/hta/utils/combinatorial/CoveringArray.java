@@ -0,0 +1,268 @@
+package com.hta.utils.combinatorial;
+
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An n-wise covering array over named parameters: a set of rows in which every combination of
+ * values of any {@code strength} parameters appears at least once.
+ * <p>
+ * Rows are built greedily one at a time, as they are consumed. Each row starts from a value tuple
+ * that is not yet covered and then picks, parameter by parameter, the value that covers the most
+ * remaining tuples. Generation stops once every tuple is covered, which for pairwise coverage is
+ * typically a small multiple of the product of the two largest parameters rather than the product
+ * of all of them. Generation is deterministic, so the same inputs always yield the same rows.
+ * <p>
+ * When an iteration completes, the number of rows and the reduction against the full cross product
+ * are logged.
+ */
+public final class CoveringArray implements Iterable<Object[]> {
+
+    private static final Logger logger = LoggerUtils.getLogger(CoveringArray.class);
+
+    public static final int PAIRWISE = 2;
+
+    private final List<String> names;
+    private final List<List<?>> values;
+    private final int strength;
+
+    private CoveringArray(List<String> names, List<List<?>> values, int strength) {
+        this.names = names;
+        this.values = values;
+        this.strength = strength;
+    }
+
+    /**
+     * Creates a pairwise covering array.
+     *
+     * @param parameters The values of each parameter, keyed by parameter name in column order
+     * @return The covering array
+     */
+    public static CoveringArray pairwise(Map<String, ? extends List<?>> parameters) {
+        return of(PAIRWISE, parameters);
+    }
+
+    /**
+     * Creates an n-wise covering array. A strength at or above the number of parameters
+     * yields the full cross product.
+     *
+     * @param strength   The number of parameters whose value combinations must all appear
+     * @param parameters The values of each parameter, keyed by parameter name in column order
+     * @return The covering array
+     * @throws IllegalArgumentException if the strength is below 1 or a parameter has no values
+     */
+    public static CoveringArray of(int strength, Map<String, ? extends List<?>> parameters) {
+        if (strength < 1) {
+            throw new IllegalArgumentException("Covering strength must be at least 1: " + strength);
+        }
+        List<String> names = new ArrayList<>();
+        List<List<?>> values = new ArrayList<>();
+        parameters.forEach((name, parameterValues) -> {
+            if (parameterValues.isEmpty()) {
+                throw new IllegalArgumentException("Parameter has no values: " + name);
+            }
+            names.add(name);
+            values.add(List.copyOf(parameterValues));
+        });
+        return new CoveringArray(List.copyOf(names), List.copyOf(values), Math.min(strength, names.size()));
+    }
+
+    /**
+     * Retrieves the parameter names, in the column order of the generated rows.
+     *
+     * @return The parameter names
+     */
+    public List<String> parameterNames() {
+        return names;
+    }
+
+    /**
+     * Computes the number of rows a full cross product of the parameters would have.
+     *
+     * @return The size of the cross product
+     */
+    public BigInteger fullProductSize() {
+        BigInteger size = BigInteger.ONE;
+        for (List<?> parameterValues : values) {
+            size = size.multiply(BigInteger.valueOf(parameterValues.size()));
+        }
+        return size;
+    }
+
+    /**
+     * Returns a lazy iterator over the rows. Each iterator generates the rows afresh.
+     *
+     * @return An iterator of rows holding one value per parameter, in column order
+     */
+    @Override
+    public Iterator<Object[]> iterator() {
+        return new RowIterator();
+    }
+
+    public Stream<Object[]> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Greedy generator state: for every combination of {@code strength} parameters, a bit set of the
+     * value tuples that are not covered yet, indexed in mixed radix over the parameter sizes.
+     */
+    private final class RowIterator implements Iterator<Object[]> {
+
+        private final int[] sizes;
+        private final int[][] combinations;
+        private final int[][] combinationsByParameter;
+        private final BitSet[] uncoveredTuples;
+        private long uncoveredCount;
+        private int rowsGenerated;
+        private boolean reported;
+
+        private RowIterator() {
+            sizes = values.stream().mapToInt(List::size).toArray();
+            combinations = combinations(sizes.length, strength);
+
+            List<List<Integer>> byParameter = new ArrayList<>();
+            for (int parameter = 0; parameter < sizes.length; parameter++) {
+                byParameter.add(new ArrayList<>());
+            }
+            uncoveredTuples = new BitSet[combinations.length];
+            for (int c = 0; c < combinations.length; c++) {
+                int tupleCount = 1;
+                for (int parameter : combinations[c]) {
+                    tupleCount *= sizes[parameter];
+                    byParameter.get(parameter).add(c);
+                }
+                uncoveredTuples[c] = new BitSet(tupleCount);
+                uncoveredTuples[c].set(0, tupleCount);
+                uncoveredCount += tupleCount;
+            }
+            combinationsByParameter = byParameter.stream()
+                    .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                    .toArray(int[][]::new);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (uncoveredCount > 0) {
+                return true;
+            }
+            if (!reported) {
+                reported = true;
+                BigInteger fullProduct = fullProductSize();
+                logger.info("Covering array over {} (strength {}): {} row(s) instead of {}, a {}x reduction",
+                        names, strength, rowsGenerated, fullProduct,
+                        rowsGenerated == 0 ? 1 : fullProduct.divide(BigInteger.valueOf(rowsGenerated)));
+            }
+            return false;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int[] row = new int[sizes.length];
+            Arrays.fill(row, -1);
+            seedWithUncoveredTuple(row);
+            for (int parameter = 0; parameter < sizes.length; parameter++) {
+                if (row[parameter] < 0) {
+                    row[parameter] = bestValueFor(parameter, row);
+                }
+            }
+            markCovered(row);
+            rowsGenerated++;
+
+            Object[] rowValues = new Object[row.length];
+            for (int parameter = 0; parameter < row.length; parameter++) {
+                rowValues[parameter] = values.get(parameter).get(row[parameter]);
+            }
+            return rowValues;
+        }
+
+        private void seedWithUncoveredTuple(int[] row) {
+            for (int c = 0; c < combinations.length; c++) {
+                int tuple = uncoveredTuples[c].nextSetBit(0);
+                if (tuple >= 0) {
+                    int[] combination = combinations[c];
+                    for (int i = combination.length - 1; i >= 0; i--) {
+                        row[combination[i]] = tuple % sizes[combination[i]];
+                        tuple /= sizes[combination[i]];
+                    }
+                    return;
+                }
+            }
+        }
+
+        private int bestValueFor(int parameter, int[] row) {
+            int bestValue = 0;
+            int bestScore = -1;
+            for (int value = 0; value < sizes[parameter]; value++) {
+                row[parameter] = value;
+                int score = 0;
+                for (int c : combinationsByParameter[parameter]) {
+                    int tuple = tupleIndex(combinations[c], row);
+                    if (tuple >= 0 && uncoveredTuples[c].get(tuple)) {
+                        score++;
+                    }
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestValue = value;
+                }
+            }
+            return bestValue;
+        }
+
+        private void markCovered(int[] row) {
+            for (int c = 0; c < combinations.length; c++) {
+                int tuple = tupleIndex(combinations[c], row);
+                if (uncoveredTuples[c].get(tuple)) {
+                    uncoveredTuples[c].clear(tuple);
+                    uncoveredCount--;
+                }
+            }
+        }
+
+        /**
+         * Encodes the row's values for a combination in mixed radix, or -1 if any is still unassigned.
+         */
+        private int tupleIndex(int[] combination, int[] row) {
+            int tuple = 0;
+            for (int parameter : combination) {
+                if (row[parameter] < 0) {
+                    return -1;
+                }
+                tuple = tuple * sizes[parameter] + row[parameter];
+            }
+            return tuple;
+        }
+    }
+
+    private static int[][] combinations(int parameterCount, int strength) {
+        List<int[]> combinations = new ArrayList<>();
+        int[] combination = new int[strength];
+        for (int i = 0; i < strength; i++) {
+            combination[i] = i;
+        }
+        while (true) {
+            combinations.add(combination.clone());
+            int position = strength - 1;
+            while (position >= 0 && combination[position] == parameterCount - strength + position) {
+                position--;
+            }
+            if (position < 0) {
+                return combinations.toArray(int[][]::new);
+            }
+            combination[position]++;
+            for (int i = position + 1; i < strength; i++) {
+                combination[i] = combination[i - 1] + 1;
+            }
+        }
+    }
+}
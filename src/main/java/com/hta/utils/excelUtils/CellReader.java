@@ -4,11 +4,12 @@ import com.hta.utils.logging.ErrorHandler;
 import org.apache.poi.ss.usermodel.*;
 
 import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
 public class CellReader {
 
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     /**
      * Retrieves the value of the cell as a string.
@@ -47,46 +48,90 @@ public class CellReader {
     /**
      * Retrieves the value of the cell as an integer.
      * If the cell is null, null is returned. If the cell type is
-     * {@link CellType#STRING}, the string is parsed to an integer. If the cell
-     * type is {@link CellType#NUMERIC}, the numeric value is formatted to an
-     * integer. If the cell type is anything else, null is returned.
+     * {@link CellType#NUMERIC}, the numeric value is read directly from the cell
+     * and truncated to an integer. Any other cell is read as a string and parsed
+     * to an integer, ignoring a trailing ".0" fraction.
      *
      * @param cell the cell to read the value from
-     * @return the value of the cell as an integer, or null if the cell value
-     * cannot be parsed
+     * @return the value of the cell as an integer, or null if the cell is empty
+     * @throws RuntimeException if the cell value cannot be parsed
      */
     public static Integer getCellValueAsInteger(Cell cell) {
+        if (isPlainNumericCell(cell)) {
+            return (int) cell.getNumericCellValue();
+        }
         String stringValue = getCellValueAsString(cell);
-        try {
-            return stringValue.isEmpty() ? null :
-                    new BigDecimal(stringValue.replaceAll("\\.0+$", "")).intValue();
-        } catch (NumberFormatException error) {
-            ErrorHandler.logError(error, "getCellValueAsInteger", "Failed to get cell value");
-            throw new RuntimeException("Failed to get cell value", error);
+        return stringValue.isEmpty() ? null : parseInteger(stringValue);
+    }
+
+    /**
+     * Retrieves the value of the cell as a primitive int, without boxing on the numeric path.
+     *
+     * @param cell         the cell to read the value from
+     * @param defaultValue the value to return if the cell is empty
+     * @return the value of the cell as an int, or the default value if the cell is empty
+     * @throws RuntimeException if the cell value cannot be parsed
+     */
+    public static int getCellValueAsInt(Cell cell, int defaultValue) {
+        if (isPlainNumericCell(cell)) {
+            return (int) cell.getNumericCellValue();
         }
+        Integer value = getCellValueAsInteger(cell);
+        return value != null ? value : defaultValue;
     }
 
 
     /**
      * Retrieves the value of the cell as a double.
      * If the cell is null, null is returned. If the cell type is
-     * {@link CellType#STRING}, the string is parsed to a double. If the cell
-     * type is {@link CellType#NUMERIC}, the numeric value is formatted to a
-     * double. If the cell type is anything else, null is returned.
+     * {@link CellType#NUMERIC}, the numeric value is read directly from the cell.
+     * Any other cell is read as a string and parsed to a double, ignoring
+     * thousands separators.
      *
      * @param cell the cell to read the value from
-     * @return the value of the cell as a double, or null if the cell value
-     * cannot be parsed
+     * @return the value of the cell as a double, or null if the cell is empty
+     * @throws RuntimeException if the cell value cannot be parsed
      */
     public static Double getCellValueAsDouble(Cell cell) {
+        if (isPlainNumericCell(cell)) {
+            return cell.getNumericCellValue();
+        }
         String stringValue = getCellValueAsString(cell);
-        try {
-            return stringValue.isEmpty() ? null :
-                    new BigDecimal(stringValue.replaceAll(",", "").trim()).doubleValue();
-        } catch (NumberFormatException error) {
-            ErrorHandler.logError(error, "getCellValueAsDouble", "Failed to get cell value");
-            throw new RuntimeException("Failed to get cell value", error);
+        return stringValue.isEmpty() ? null : parseDouble(stringValue);
+    }
+
+    /**
+     * Retrieves the value of the cell as a primitive double, without boxing on the numeric path.
+     *
+     * @param cell         the cell to read the value from
+     * @param defaultValue the value to return if the cell is empty
+     * @return the value of the cell as a double, or the default value if the cell is empty
+     * @throws RuntimeException if the cell value cannot be parsed
+     */
+    public static double getCellValueAsDouble(Cell cell, double defaultValue) {
+        if (isPlainNumericCell(cell)) {
+            return cell.getNumericCellValue();
         }
+        Double value = getCellValueAsDouble(cell);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Decodes a raw numeric cell value into its natural boxed type.
+     * Whole numbers become an {@link Integer}, or a {@link Long} when they do not fit in an int;
+     * all other values stay a {@link Double}.
+     *
+     * @param value the numeric value read from the cell
+     * @return the decoded value
+     */
+    public static Object decodeNumericValue(double value) {
+        if (value != Math.floor(value) || Double.isInfinite(value)) {
+            return value;
+        }
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return (long) value;
     }
 
     /**
@@ -156,7 +201,7 @@ public class CellReader {
     private static String formatNumericCell(Cell cell) {
         try {
             if (DateUtil.isCellDateFormatted(cell)) {
-                return new SimpleDateFormat("yyyy-MM-dd").format(cell.getDateCellValue());
+                return cell.getLocalDateTimeCellValue().format(DATE_FORMATTER);
             }
 
             double value = cell.getNumericCellValue();
@@ -197,6 +242,84 @@ public class CellReader {
         }
     }
 
+    /**
+     * Determines if a cell holds a plain number that can be read without going through a string.
+     *
+     * @param cell the cell to check
+     * @return true if the cell is numeric and not date-formatted, false otherwise
+     */
+    private static boolean isPlainNumericCell(Cell cell) {
+        return cell != null && cell.getCellType() == CellType.NUMERIC && !DateUtil.isCellDateFormatted(cell);
+    }
+
+    /**
+     * Parses an integer from text, accepting a trailing zero fraction such as "12.0".
+     * Plain integers are parsed directly; anything else falls back to {@link BigDecimal}.
+     *
+     * @param value the text to parse
+     * @return the parsed integer
+     * @throws RuntimeException if the text is not a number
+     */
+    private static int parseInteger(String value) {
+        try {
+            int end = value.length();
+            int dot = value.indexOf('.');
+            if (dot > 0 && isAllZeros(value, dot + 1)) {
+                end = dot;
+            }
+            if (isPlainInteger(value, end)) {
+                return Integer.parseInt(value, 0, end, 10);
+            }
+            return new BigDecimal(value.substring(0, end)).intValue();
+        } catch (NumberFormatException error) {
+            ErrorHandler.logError(error, "getCellValueAsInteger", "Failed to get cell value");
+            throw new RuntimeException("Failed to get cell value", error);
+        }
+    }
+
+    /**
+     * Parses a double from text, removing thousands separators first.
+     *
+     * @param value the text to parse
+     * @return the parsed double
+     * @throws RuntimeException if the text is not a number
+     */
+    private static double parseDouble(String value) {
+        try {
+            String cleanedValue = value.indexOf(',') >= 0 ? value.replace(",", "").trim() : value.trim();
+            return new BigDecimal(cleanedValue).doubleValue();
+        } catch (NumberFormatException error) {
+            ErrorHandler.logError(error, "getCellValueAsDouble", "Failed to get cell value");
+            throw new RuntimeException("Failed to get cell value", error);
+        }
+    }
+
+    private static boolean isAllZeros(String value, int from) {
+        if (from >= value.length()) {
+            return false;
+        }
+        for (int i = from; i < value.length(); i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPlainInteger(String value, int end) {
+        int start = end > 1 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        // Nine digits always fit in an int; longer values take the BigDecimal path
+        if (end == start || end - start > 9) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Determines if a cell is valid.
      * A cell is valid if it is not null and if its type is not {@link CellType#_NONE} or
@@ -0,0 +1,79 @@
+package com.hta.utils.excelUtils;
+
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Build-time tool that converts every XLSX workbook in a directory to a {@link ColumnarWorkbookFile}.
+ * Workbooks whose columnar copy is already current are skipped.
+ * <p>
+ * Usage: {@code ColumnarWorkbookConverter <sourceDir> [outputDir] [baseDir]}, where the base directory
+ * is the one workbook paths are made relative to, normally the project directory.
+ */
+public class ColumnarWorkbookConverter {
+
+    private static final Logger logger = LoggerUtils.getLogger(ColumnarWorkbookConverter.class);
+
+    private ColumnarWorkbookConverter() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: ColumnarWorkbookConverter <sourceDir> [outputDir] [baseDir]");
+        }
+        // Runs inside the Maven JVM, so the directories are passed on rather than set as system properties,
+        // and logging is stopped on the way out so none of its threads outlive the build step
+        Path outputDir = Path.of(args.length > 1 ? args[1] : ColumnarWorkbookFile.DEFAULT_OUTPUT_DIR);
+        Path baseDir = Path.of(args.length > 2 ? args[2] : System.getProperty("user.dir"));
+        try {
+            convertDirectory(Path.of(args[0]), outputDir, baseDir);
+        } finally {
+            LogManager.shutdown();
+        }
+    }
+
+    /**
+     * Converts every workbook in a directory whose columnar copy is missing or stale.
+     *
+     * @param sourceDir The directory holding the XLSX files
+     * @param outputDir The directory columnar files are written to
+     * @param baseDir   The directory workbook paths are made relative to
+     * @return The number of workbooks converted
+     */
+    public static int convertDirectory(Path sourceDir, Path outputDir, Path baseDir) {
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            List<Path> workbooks = files
+                    .filter(file -> file.getFileName().toString().endsWith(".xlsx"))
+                    .filter(file -> !file.getFileName().toString().startsWith("~$")) // Excel lock files
+                    .sorted()
+                    .toList();
+
+            int converted = 0;
+            for (Path workbook : workbooks) {
+                String workbookPath = workbook.toString();
+                Path binaryPath = ColumnarWorkbookFile.binaryPathFor(workbookPath, outputDir, baseDir);
+                if (ColumnarWorkbookFile.openIfCurrent(workbookPath, binaryPath).isPresent()) {
+                    logger.info("Columnar copy of '{}' is up to date", workbookPath);
+                    continue;
+                }
+                ColumnarWorkbookFile.write(workbookPath, binaryPath);
+                converted++;
+            }
+
+            logger.info("Converted {} of {} workbook(s) in '{}'", converted, workbooks.size(), sourceDir);
+            return converted;
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "convertDirectory", "Failed to list workbooks in: " + sourceDir);
+            throw new ExcelOperationException("Failed to list workbooks in: " + sourceDir, error);
+        }
+    }
+}
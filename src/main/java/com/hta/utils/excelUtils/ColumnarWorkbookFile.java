@@ -0,0 +1,421 @@
+package com.hta.utils.excelUtils;
+
+import com.hta.utils.StringInterner;
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact columnar copy of an XLSX workbook that can be loaded without POI.
+ * <p>
+ * The file stores the {@link WorkbookFingerprint} of the source workbook, the zip checksums of the
+ * workbook parts its content depends on, a shared string table,
+ * and for every sheet its headers and one block per column: a type tag per row followed by the
+ * non-null values. Sheets are indexed by offset so a single sheet can be decoded straight from
+ * a memory-mapped buffer. Values decode to the same types {@link ExcelConfigManager} produces.
+ * <p>
+ * Binary files are written by {@link ColumnarWorkbookConverter} during the build, to
+ * {@value #DEFAULT_OUTPUT_DIR} unless the {@value #OUTPUT_DIR_PROPERTY} system property says otherwise.
+ * Each copy is stored under the path of its workbook relative to the project directory (the
+ * {@value #BASE_DIR_PROPERTY} system property, or the working directory), so workbooks of the same
+ * name in different directories get copies of their own.
+ */
+public final class ColumnarWorkbookFile {
+
+    private static final Logger logger = LoggerUtils.getLogger(ColumnarWorkbookFile.class);
+
+    public static final String DEFAULT_OUTPUT_DIR = "target/columnar-test-data";
+    public static final String OUTPUT_DIR_PROPERTY = "columnarDataDir";
+    public static final String BASE_DIR_PROPERTY = "columnarDataBaseDir";
+    private static final String FILE_EXTENSION = ".col";
+
+    private static final int MAGIC = 0x48544143; // "HTAC"
+    private static final int VERSION = 2;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte DATE = 6;
+
+    private final Path filePath;
+    private final ByteBuffer buffer;
+    private final WorkbookFingerprint fingerprint;
+    private final Map<String, Long> partCrcs;
+    private final String[] strings;
+    private final Map<String, Integer> sheetOffsets;
+
+    private ColumnarWorkbookFile(Path filePath, ByteBuffer buffer, WorkbookFingerprint fingerprint,
+                                 Map<String, Long> partCrcs, String[] strings, Map<String, Integer> sheetOffsets) {
+        this.filePath = filePath;
+        this.buffer = buffer;
+        this.fingerprint = fingerprint;
+        this.partCrcs = partCrcs;
+        this.strings = strings;
+        this.sheetOffsets = sheetOffsets;
+    }
+
+    /**
+     * Resolves where the columnar copy of a workbook lives, using the configured output and base directories.
+     *
+     * @param workbookPath The path to the source XLSX file
+     * @return The path of the columnar file for that workbook
+     */
+    public static Path binaryPathFor(String workbookPath) {
+        return binaryPathFor(workbookPath,
+                Path.of(System.getProperty(OUTPUT_DIR_PROPERTY, DEFAULT_OUTPUT_DIR)),
+                Path.of(System.getProperty(BASE_DIR_PROPERTY, System.getProperty("user.dir"))));
+    }
+
+    /**
+     * Resolves where the columnar copy of a workbook lives: its path relative to the base directory,
+     * with the extension replaced, under the output directory. Workbooks outside the base directory
+     * are keyed by their absolute path.
+     *
+     * @param workbookPath The path to the source XLSX file
+     * @param outputDir    The directory columnar files are written to
+     * @param baseDir      The directory workbook paths are made relative to
+     * @return The path of the columnar file for that workbook
+     */
+    public static Path binaryPathFor(String workbookPath, Path outputDir, Path baseDir) {
+        Path workbook = Path.of(workbookPath).toAbsolutePath().normalize();
+        Path base = baseDir.toAbsolutePath().normalize();
+        Path relativePath = workbook.startsWith(base)
+                ? base.relativize(workbook)
+                : workbook.getRoot().relativize(workbook);
+
+        String fileName = relativePath.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        return outputDir.resolve(relativePath)
+                .resolveSibling((extension > 0 ? fileName.substring(0, extension) : fileName) + FILE_EXTENSION);
+    }
+
+    /**
+     * Opens the columnar copy of a workbook if it exists and was built from the workbook as it is now.
+     *
+     * @param workbookPath The path to the source XLSX file
+     * @return The opened columnar file, or empty if it is missing, unreadable or stale
+     */
+    public static Optional<ColumnarWorkbookFile> openIfCurrent(String workbookPath) {
+        return openIfCurrent(workbookPath, binaryPathFor(workbookPath));
+    }
+
+    /**
+     * Opens a columnar file if it exists and was built from the workbook as it is now.
+     * Currency is checked against the part checksums recorded at conversion time, which only reads the
+     * zip central directory of the XLSX archive: nothing is inflated or parsed. Modification time and size
+     * alone would miss a same-size edit made within the file system's timestamp granularity.
+     *
+     * @param workbookPath The path to the source XLSX file
+     * @param binaryPath   The path of its columnar file
+     * @return The opened columnar file, or empty if it is missing, unreadable or stale
+     */
+    public static Optional<ColumnarWorkbookFile> openIfCurrent(String workbookPath, Path binaryPath) {
+        if (!Files.isRegularFile(binaryPath)) {
+            return Optional.empty();
+        }
+
+        try {
+            ColumnarWorkbookFile columnarFile = open(binaryPath);
+            if (!WorkbookFingerprint.hasPartCrcs(workbookPath, columnarFile.partCrcs)) {
+                logger.info("Columnar file '{}' is stale for '{}'", binaryPath, workbookPath);
+                return Optional.empty();
+            }
+            return Optional.of(columnarFile);
+        } catch (Exception error) {
+            logger.warn("Ignoring unreadable columnar file '{}': {}", binaryPath, error.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Memory-maps a columnar file and reads its fingerprint, part checksums, string table and sheet index.
+     *
+     * @param binaryPath The path to the columnar file
+     * @return The opened columnar file
+     * @throws ExcelOperationException if the file cannot be read or has an unknown format
+     */
+    public static ColumnarWorkbookFile open(Path binaryPath) {
+        try (FileChannel channel = FileChannel.open(binaryPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new ExcelOperationException("Unsupported columnar file format: " + binaryPath);
+            }
+
+            long lastModified = buffer.getLong();
+            long size = buffer.getLong();
+            long sharedCrc = buffer.getLong();
+            int sheetCrcCount = buffer.getInt();
+            Map<Integer, Long> sheetCrcRefs = new LinkedHashMap<>();
+            for (int i = 0; i < sheetCrcCount; i++) {
+                sheetCrcRefs.put(buffer.getInt(), buffer.getLong());
+            }
+            int partCrcCount = buffer.getInt();
+            Map<Integer, Long> partCrcRefs = new LinkedHashMap<>();
+            for (int i = 0; i < partCrcCount; i++) {
+                partCrcRefs.put(buffer.getInt(), buffer.getLong());
+            }
+
+            int stringCount = buffer.getInt();
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = StringInterner.intern(new String(bytes, StandardCharsets.UTF_8));
+            }
+
+            Map<String, Long> sheetCrcs = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Long> sheetCrc : sheetCrcRefs.entrySet()) {
+                sheetCrcs.put(strings[sheetCrc.getKey()], sheetCrc.getValue());
+            }
+            Map<String, Long> partCrcs = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Long> partCrc : partCrcRefs.entrySet()) {
+                partCrcs.put(strings[partCrc.getKey()], partCrc.getValue());
+            }
+
+            int sheetCount = buffer.getInt();
+            Map<String, Integer> sheetOffsets = new LinkedHashMap<>();
+            for (int i = 0; i < sheetCount; i++) {
+                sheetOffsets.put(strings[buffer.getInt()], buffer.getInt());
+            }
+
+            return new ColumnarWorkbookFile(binaryPath, buffer,
+                    new WorkbookFingerprint(lastModified, size, sharedCrc, sheetCrcs), partCrcs, strings, sheetOffsets);
+        } catch (IOException | RuntimeException error) {
+            ErrorHandler.logError(error, "open", "Failed to open columnar file: " + binaryPath);
+            throw new ExcelOperationException("Failed to open columnar file: " + binaryPath, error);
+        }
+    }
+
+    /**
+     * Converts a workbook to its columnar form, replacing any previous copy atomically.
+     *
+     * @param workbookPath The path to the source XLSX file
+     * @param binaryPath   The path to write the columnar file to
+     * @throws ExcelOperationException if the workbook cannot be read or the file cannot be written
+     */
+    public static void write(String workbookPath, Path binaryPath) {
+        try {
+            WorkbookFingerprint fingerprint = WorkbookFingerprint.capture(workbookPath);
+            Map<String, Long> partCrcs = WorkbookFingerprint.capturePartCrcs(workbookPath);
+            Map<String, SheetData> workbookData = ExcelConfigManager.loadWorkbookSheets(workbookPath);
+
+            Files.createDirectories(binaryPath.toAbsolutePath().getParent());
+            Path tempPath = binaryPath.resolveSibling(binaryPath.getFileName() + ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                writeWorkbook(outputStream, fingerprint, partCrcs, workbookData);
+            }
+            Files.move(tempPath, binaryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Wrote columnar copy of '{}' to '{}' ({} bytes)", workbookPath, binaryPath, Files.size(binaryPath));
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "write", "Failed to write columnar file: " + binaryPath);
+            throw new ExcelOperationException("Failed to write columnar file: " + binaryPath, error);
+        }
+    }
+
+    /**
+     * @return the fingerprint of the workbook this file was converted from
+     */
+    public WorkbookFingerprint fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return the names of the sheets in this file, in workbook order
+     */
+    public List<String> sheetNames() {
+        return List.copyOf(sheetOffsets.keySet());
+    }
+
+    /**
+     * Decodes a single sheet from the mapped buffer.
+     *
+     * @param sheetName The name of the sheet to decode
+     * @return The sheet data, in the same shape {@link ExcelConfigManager} produces
+     * @throws ExcelOperationException if the sheet is not in this file
+     */
+    public SheetData readSheet(String sheetName) {
+        Integer offset = sheetOffsets.get(sheetName);
+        if (offset == null) {
+            throw new ExcelOperationException("Sheet not found in columnar file " + filePath + ": " + sheetName);
+        }
+
+        long startTime = System.nanoTime();
+        ByteBuffer sheetBuffer = buffer.duplicate().position(offset);
+
+        int columnCount = sheetBuffer.getInt();
+        List<String> headers = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            headers.add(strings[sheetBuffer.getInt()]);
+        }
+
+        int rowCount = sheetBuffer.getInt();
+        List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new HashMap<>());
+        }
+
+        for (String header : headers) {
+            byte[] tags = new byte[rowCount];
+            sheetBuffer.get(tags);
+            for (int row = 0; row < rowCount; row++) {
+                Object value = readValue(sheetBuffer, tags[row]);
+                if (value != null) {
+                    rows.get(row).put(header, value);
+                }
+            }
+        }
+
+        return new SheetData(sheetName, headers, rows, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    private Object readValue(ByteBuffer sheetBuffer, byte tag) {
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> strings[sheetBuffer.getInt()];
+            case INT -> sheetBuffer.getInt();
+            case LONG -> sheetBuffer.getLong();
+            case DOUBLE -> sheetBuffer.getDouble();
+            case BOOLEAN -> sheetBuffer.get() != 0;
+            case DATE -> new Date(sheetBuffer.getLong());
+            default -> throw new ExcelOperationException("Unknown value tag " + tag + " in " + filePath);
+        };
+    }
+
+    private static void writeWorkbook(OutputStream outputStream, WorkbookFingerprint fingerprint,
+                                      Map<String, Long> partCrcs, Map<String, SheetData> workbookData)
+            throws IOException {
+        // Intern every string first so values can be written as table references
+        Map<String, Integer> stringRefs = new LinkedHashMap<>();
+        fingerprint.sheetCrcs().keySet().forEach(sheetName -> intern(stringRefs, sheetName));
+        partCrcs.keySet().forEach(partName -> intern(stringRefs, partName));
+        for (SheetData sheetData : workbookData.values()) {
+            intern(stringRefs, sheetData.sheetName());
+            sheetData.headers().forEach(header -> intern(stringRefs, header));
+            for (Map<String, Object> row : sheetData.rows()) {
+                row.values().forEach(value -> {
+                    if (value instanceof String text) {
+                        intern(stringRefs, text);
+                    }
+                });
+            }
+        }
+
+        List<byte[]> sheetBlocks = new ArrayList<>();
+        for (SheetData sheetData : workbookData.values()) {
+            sheetBlocks.add(encodeSheet(sheetData, stringRefs));
+        }
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(fingerprint.lastModified());
+        output.writeLong(fingerprint.size());
+        output.writeLong(fingerprint.sharedCrc());
+        output.writeInt(fingerprint.sheetCrcs().size());
+        for (Map.Entry<String, Long> sheetCrc : fingerprint.sheetCrcs().entrySet()) {
+            output.writeInt(stringRefs.get(sheetCrc.getKey()));
+            output.writeLong(sheetCrc.getValue());
+        }
+        output.writeInt(partCrcs.size());
+        for (Map.Entry<String, Long> partCrc : partCrcs.entrySet()) {
+            output.writeInt(stringRefs.get(partCrc.getKey()));
+            output.writeLong(partCrc.getValue());
+        }
+
+        output.writeInt(stringRefs.size());
+        for (String text : stringRefs.keySet()) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        // Sheet blocks follow the index, so their offsets are known once the index size is
+        int offset = output.size() + Integer.BYTES + workbookData.size() * 2 * Integer.BYTES;
+        output.writeInt(workbookData.size());
+        int sheetIndex = 0;
+        for (SheetData sheetData : workbookData.values()) {
+            output.writeInt(stringRefs.get(sheetData.sheetName()));
+            output.writeInt(offset);
+            offset += sheetBlocks.get(sheetIndex++).length;
+        }
+        for (byte[] sheetBlock : sheetBlocks) {
+            output.write(sheetBlock);
+        }
+        output.flush();
+    }
+
+    private static byte[] encodeSheet(SheetData sheetData, Map<String, Integer> stringRefs) throws IOException {
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(block);
+
+        List<String> headers = sheetData.headers();
+        List<Map<String, Object>> rows = sheetData.rows();
+        output.writeInt(headers.size());
+        for (String header : headers) {
+            output.writeInt(stringRefs.get(header));
+        }
+        output.writeInt(rows.size());
+
+        for (String header : headers) {
+            for (Map<String, Object> row : rows) {
+                output.writeByte(tagOf(row.get(header)));
+            }
+            for (Map<String, Object> row : rows) {
+                writeValue(output, row.get(header), stringRefs);
+            }
+        }
+        output.flush();
+        return block.toByteArray();
+    }
+
+    private static byte tagOf(Object value) {
+        return switch (value) {
+            case null -> NULL;
+            case String ignored -> STRING;
+            case Integer ignored -> INT;
+            case Long ignored -> LONG;
+            case Double ignored -> DOUBLE;
+            case Boolean ignored -> BOOLEAN;
+            case Date ignored -> DATE;
+            default -> throw new ExcelOperationException("Unsupported cell value type: " + value.getClass().getName());
+        };
+    }
+
+    private static void writeValue(DataOutputStream output, Object value, Map<String, Integer> stringRefs)
+            throws IOException {
+        switch (value) {
+            case null -> {
+            }
+            case String text -> output.writeInt(stringRefs.get(text));
+            case Integer number -> output.writeInt(number);
+            case Long number -> output.writeLong(number);
+            case Double number -> output.writeDouble(number);
+            case Boolean flag -> output.writeByte(flag ? 1 : 0);
+            case Date date -> output.writeLong(date.getTime());
+            default -> throw new ExcelOperationException("Unsupported cell value type: " + value.getClass().getName());
+        }
+    }
+
+    private static void intern(Map<String, Integer> stringRefs, String text) {
+        stringRefs.putIfAbsent(text, stringRefs.size());
+    }
+}
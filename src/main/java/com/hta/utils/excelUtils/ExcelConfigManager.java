@@ -1,5 +1,6 @@
 package com.hta.utils.excelUtils;
 
+import com.hta.utils.StringInterner;
 import com.hta.utils.logging.ErrorHandler;
 import com.hta.utils.logging.LoggerUtils;
 import org.apache.logging.log4j.Logger;
@@ -34,6 +35,62 @@ public class ExcelConfigManager {
         return dataList;
     }
 
+    /**
+     * Opens an Excel file once and materializes the requested sheets one after another.
+     * If no sheet names are given, every sheet in the workbook is loaded.
+     * The sheets are read on the calling thread, since a POI workbook must not be used from several threads.
+     * The time spent opening the workbook, which is where its XML is parsed, is logged separately from
+     * the time spent reading rows, which is recorded on each returned {@link SheetData}.
+     *
+     * @param filePath   The path to the Excel file
+     * @param sheetNames The names of the sheets to read
+     * @return Map of sheet name to sheet data, in the order the sheets were requested
+     * @throws ExcelOperationException if there are issues reading the file or any of the sheets
+     */
+    public static Map<String, SheetData> loadWorkbookSheets(String filePath, String... sheetNames) {
+        long startTime = System.nanoTime();
+
+        try (WorkbookManager workbookManager = new WorkbookManager(filePath)) {
+            long openMillis = (System.nanoTime() - startTime) / 1_000_000;
+            List<String> requestedSheets = sheetNames == null || sheetNames.length == 0
+                    ? workbookManager.getSheetNames()
+                    : List.of(sheetNames);
+
+            // Resolve sheets up front so a missing sheet fails before any rows are read
+            Map<String, Sheet> sheets = new LinkedHashMap<>();
+            for (String sheetName : requestedSheets) {
+                sheets.put(sheetName, workbookManager.getSheet(sheetName));
+            }
+
+            Map<String, SheetData> workbookData = new LinkedHashMap<>();
+            sheets.forEach((sheetName, sheet) -> workbookData.put(sheetName, readSheet(sheet)));
+
+            logger.info("Loaded {} sheet(s) from '{}' in {} ms (opening the workbook took {} ms)",
+                    workbookData.size(), filePath, (System.nanoTime() - startTime) / 1_000_000, openMillis);
+            return workbookData;
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "loadWorkbookSheets", "Failed to read Excel data");
+            throw new ExcelOperationException("Error closing workbook", error);
+        }
+    }
+
+    /**
+     * Reads the headers and data rows of a sheet, recording the time spent.
+     *
+     * @param sheet The sheet to read
+     * @return The materialized sheet data
+     * @throws ExcelOperationException if there are issues processing the sheet
+     */
+    private static SheetData readSheet(Sheet sheet) {
+        long startTime = System.nanoTime();
+        List<Map<String, Object>> dataList = new ArrayList<>();
+        processSheet(sheet, dataList);
+
+        Row headerRow = sheet.getRow(0);
+        List<String> headers = headerRow == null ? List.of() : getHeaders(headerRow);
+        return new SheetData(sheet.getSheetName(), headers, dataList, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
     /**
      * Process the data in an Excel sheet and convert it to a list of maps.
      * This method assumes that the first row contains the headers.
@@ -84,7 +141,7 @@ public class ExcelConfigManager {
         try {
             List<String> headers = new ArrayList<>();
             for (Cell cell : headerRow) {
-                headers.add(CellReader.getCellValueAsString(cell).trim());
+                headers.add(StringInterner.intern(CellReader.getCellValueAsString(cell).trim()));
             }
             return headers;
         } catch (Exception error) {
@@ -130,7 +187,8 @@ public class ExcelConfigManager {
      * <p>
      * The type of object returned depends on the type of the cell value.
      * If the cell value is a boolean, a boolean is returned.
-     * If the cell value is a numeric, a double or int is returned based on whether the value is an integer.
+     * If the cell value is a numeric, it is decoded straight from the cell: a date for date-formatted cells,
+     * otherwise an int (or long when out of int range) for whole numbers and a double for everything else.
      * If the cell value is a string, a string is returned.
      * If the cell value is a formula, the formula is evaluated and the result is returned.
      * If the cell value is of any other type, null is returned.
@@ -140,35 +198,24 @@ public class ExcelConfigManager {
      */
     private static Object getCellValue(Cell cell) {
         try {
-            Workbook workbook = cell.getSheet().getWorkbook(); // Get workbook instance
-            FormulaEvaluator formulaEvaluator = workbook.getCreationHelper().createFormulaEvaluator(); // Get FormulaEvaluator
-
             return switch (cell.getCellType()) {
-                case BOOLEAN -> CellReader.getCellValueAsBoolean(cell);
-                case NUMERIC -> {
-                    if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
-                        yield CellReader.getCellValueAsDate(cell);
-                    } else {
-                        double numericValue = cell.getNumericCellValue(); // Always returns a primitive double
-                        boolean isInteger = Double.compare(numericValue, Math.floor(numericValue)) == 0
-                                && !Double.isInfinite(numericValue);
-
-                        // Ensure null safety before yielding
-                        yield isInteger
-                                ? Objects.requireNonNullElse(CellReader.getCellValueAsInteger(cell), (int) numericValue)
-                                : Objects.requireNonNullElse(CellReader.getCellValueAsDouble(cell), numericValue);
-                    }
-                }
+                case BOOLEAN -> cell.getBooleanCellValue();
+                case NUMERIC -> DateUtil.isCellDateFormatted(cell)
+                        ? cell.getDateCellValue()
+                        : CellReader.decodeNumericValue(cell.getNumericCellValue());
                 case STRING -> {
                     String stringValue = cell.getStringCellValue().trim();
-                    yield stringValue.isEmpty() ? null : stringValue;
+                    yield stringValue.isEmpty() ? null : StringInterner.intern(stringValue);
                 }
                 case FORMULA -> {
+                    // Only formula cells need an evaluator, so create it lazily
+                    FormulaEvaluator formulaEvaluator = cell.getSheet().getWorkbook()
+                            .getCreationHelper().createFormulaEvaluator();
                     CellValue evaluatedValue = formulaEvaluator.evaluate(cell);
                     yield switch (evaluatedValue.getCellType()) {
                         case BOOLEAN -> evaluatedValue.getBooleanValue();
                         case NUMERIC -> evaluatedValue.getNumberValue();
-                        case STRING -> evaluatedValue.getStringValue();
+                        case STRING -> StringInterner.intern(evaluatedValue.getStringValue());
                         default -> null;
                     };
                 }
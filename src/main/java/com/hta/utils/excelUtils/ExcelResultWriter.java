@@ -0,0 +1,251 @@
+package com.hta.utils.excelUtils;
+
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Streams test outcomes into a results workbook without holding the rows in memory.
+ * <p>
+ * Test threads only enqueue a {@link RowResult}; a single background thread owns the
+ * {@link SXSSFWorkbook} and appends each result to its sheet. SXSSF keeps at most
+ * {@code rowWindow} rows per sheet in memory and flushes older rows to a compressed temp file,
+ * so memory stays constant no matter how many rows a run produces.
+ * <p>
+ * Results are grouped into sheets by {@link RowResult#sheetName()}. A sheet is named after the last
+ * dot-separated part of that name, shortened to Excel's 31 characters and numbered when another sheet
+ * already has the name, so results of same-named methods in different classes stay apart.
+ * Each sheet mirrors the inputs of the first row written to it, followed by the
+ * Status, DurationMs and Error columns. The workbook is saved when the writer is closed,
+ * and only if at least one row was written.
+ */
+public class ExcelResultWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerUtils.getLogger(ExcelResultWriter.class);
+
+    public static final int DEFAULT_ROW_WINDOW = 100;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final List<String> RESULT_COLUMNS = List.of("Status", "DurationMs", "Error");
+    private static final int MAX_CELL_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+    private static final RowResult END_OF_RESULTS = new RowResult("", Map.of(), "", 0, null);
+
+    private final Path outputPath;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle dateStyle;
+    private final BlockingQueue<RowResult> queue;
+    private final Thread writerThread;
+    private final Map<String, ResultSheet> sheets = new HashMap<>();
+    // Excel compares sheet names case-insensitively
+    private final Set<String> usedSheetNames = new HashSet<>();
+    // Guarded by this, so no result can be queued behind END_OF_RESULTS
+    private boolean closed;
+    private long rowsWritten;
+
+    private static final class ResultSheet {
+        private final SXSSFSheet sheet;
+        private final List<String> inputColumns;
+        private int nextRow = 1;
+
+        private ResultSheet(SXSSFSheet sheet, List<String> inputColumns) {
+            this.sheet = sheet;
+            this.inputColumns = inputColumns;
+        }
+    }
+
+    public ExcelResultWriter(Path outputPath) {
+        this(outputPath, DEFAULT_ROW_WINDOW, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a writer and starts its background thread.
+     *
+     * @param outputPath    The workbook to write when the writer is closed
+     * @param rowWindow     The number of rows per sheet kept in memory before flushing to disk
+     * @param queueCapacity The number of results that may wait to be written before submit blocks
+     */
+    public ExcelResultWriter(Path outputPath, int rowWindow, int queueCapacity) {
+        this.outputPath = outputPath;
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        this.dateStyle = workbook.createCellStyle();
+        this.dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::drainQueue, "excel-result-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a result for writing. Returns as soon as the result is queued; it only blocks
+     * if the writer has fallen {@code queueCapacity} results behind. The writer thread keeps draining
+     * until {@link #close()} has queued its end marker, which cannot happen while a result is being queued.
+     *
+     * @param result The result to append
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public synchronized void submit(RowResult result) {
+        if (closed) {
+            logger.warn("Result for sheet '{}' submitted after the writer was closed, not written", result.sheetName());
+            throw new IllegalStateException("Result writer for '" + outputPath + "' is already closed");
+        }
+        try {
+            queue.put(result);
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while queueing result for sheet '{}'", result.sheetName());
+        }
+    }
+
+    /**
+     * Writes the remaining queued results and saves the workbook; closing the workbook deletes its temp files.
+     */
+    @Override
+    public void close() {
+        // Results queued by a submit that got in first are already ahead of the end marker
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        try {
+            queue.put(END_OF_RESULTS);
+            writerThread.join();
+
+            if (rowsWritten > 0) {
+                save();
+                logger.info("Wrote {} result row(s) to '{}'", rowsWritten, outputPath);
+            }
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            ErrorHandler.logError(error, "close", "Interrupted while writing results to: " + outputPath);
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "close", "Failed to save results workbook: " + outputPath);
+            throw new ExcelOperationException("Failed to save results workbook: " + outputPath, error);
+        } finally {
+            try {
+                workbook.close();
+            } catch (IOException error) {
+                logger.warn("Failed to close results workbook '{}': {}", outputPath, error.getMessage());
+            }
+        }
+    }
+
+    private void drainQueue() {
+        while (true) {
+            RowResult result;
+            try {
+                result = queue.take();
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (result == END_OF_RESULTS) {
+                return;
+            }
+
+            try {
+                writeRow(result);
+                rowsWritten++;
+            } catch (Exception error) {
+                // One bad row must not stop the rest of the run from being exported
+                ErrorHandler.logError(error, "drainQueue", "Failed to write result row to sheet: " + result.sheetName());
+            }
+        }
+    }
+
+    private void writeRow(RowResult result) {
+        ResultSheet resultSheet = sheets.computeIfAbsent(result.sheetName(),
+                sheetName -> createSheet(sheetName, List.copyOf(result.inputs().keySet())));
+
+        Row row = resultSheet.sheet.createRow(resultSheet.nextRow++);
+        int column = 0;
+        for (String inputColumn : resultSheet.inputColumns) {
+            setCellValue(row.createCell(column++), result.inputs().get(inputColumn));
+        }
+        row.createCell(column++).setCellValue(result.status());
+        row.createCell(column++).setCellValue(result.durationMillis());
+        setCellValue(row.createCell(column), result.errorMessage());
+    }
+
+    private ResultSheet createSheet(String sheetName, List<String> inputColumns) {
+        SXSSFSheet sheet = workbook.createSheet(uniqueSheetName(sheetName));
+        Row header = sheet.createRow(0);
+        int column = 0;
+        for (String inputColumn : inputColumns) {
+            header.createCell(column++).setCellValue(inputColumn);
+        }
+        for (String resultColumn : RESULT_COLUMNS) {
+            header.createCell(column++).setCellValue(resultColumn);
+        }
+        return new ResultSheet(sheet, inputColumns);
+    }
+
+    /**
+     * Derives a valid sheet name no other sheet of the workbook has, e.g. "searchHotel (2)".
+     */
+    private String uniqueSheetName(String sheetName) {
+        String baseName = WorkbookUtil.createSafeSheetName(sheetName.substring(sheetName.lastIndexOf('.') + 1));
+        String uniqueName = baseName;
+        for (int suffix = 2; !usedSheetNames.add(uniqueName.toLowerCase(Locale.ROOT)); suffix++) {
+            String marker = " (" + suffix + ")";
+            uniqueName = baseName.substring(0, Math.min(baseName.length(), MAX_SHEET_NAME_LENGTH - marker.length()))
+                    + marker;
+        }
+        return uniqueName;
+    }
+
+    private void setCellValue(Cell cell, Object value) {
+        switch (value) {
+            case null -> cell.setBlank();
+            case Number number -> cell.setCellValue(number.doubleValue());
+            case Boolean bool -> cell.setCellValue(bool);
+            case Date date -> {
+                cell.setCellValue(date);
+                cell.setCellStyle(dateStyle);
+            }
+            case LocalDate date -> {
+                cell.setCellValue(date);
+                cell.setCellStyle(dateStyle);
+            }
+            case LocalDateTime dateTime -> {
+                cell.setCellValue(dateTime);
+                cell.setCellStyle(dateStyle);
+            }
+            default -> {
+                String text = value.toString();
+                cell.setCellValue(text.length() > MAX_CELL_LENGTH ? text.substring(0, MAX_CELL_LENGTH) : text);
+            }
+        }
+    }
+
+    private void save() throws IOException {
+        Path parent = outputPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempPath = outputPath.resolveSibling(outputPath.getFileName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+            workbook.write(outputStream);
+        }
+        Files.move(tempPath, outputPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,24 @@
+package com.hta.utils.excelUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a single data-driven test invocation, written as one row of a results workbook.
+ *
+ * @param sheetName      The results sheet the row belongs to, e.g. the qualified name of the test method;
+ *                       the sheet itself is named after the last dot-separated part
+ * @param inputs         The input values of the invocation keyed by column, in column order
+ * @param status         The outcome of the invocation, e.g. PASSED, FAILED or SKIPPED
+ * @param durationMillis The time the invocation took, in milliseconds
+ * @param errorMessage   The failure message, or null if the invocation passed
+ */
+public record RowResult(String sheetName, Map<String, Object> inputs, String status, long durationMillis,
+                        String errorMessage) {
+
+    public RowResult {
+        // Keep column order and allow empty cells, which Map.copyOf would reject
+        inputs = Collections.unmodifiableMap(new LinkedHashMap<>(inputs));
+    }
+}
@@ -0,0 +1,21 @@
+package com.hta.utils.excelUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized content of a single worksheet.
+ *
+ * @param sheetName   The name of the sheet the data was read from
+ * @param headers     The trimmed header values of the first row, in column order
+ * @param rows        The non-empty data rows, keyed by header
+ * @param readMillis  The time spent reading the rows of the sheet, in milliseconds; this excludes
+ *                    opening the workbook, which is where its XML is parsed
+ */
+public record SheetData(String sheetName, List<String> headers, List<Map<String, Object>> rows, long readMillis) {
+
+    public SheetData {
+        headers = List.copyOf(headers);
+        rows = List.copyOf(rows);
+    }
+}
@@ -0,0 +1,196 @@
+package com.hta.utils.excelUtils;
+
+import com.hta.utils.logging.ErrorHandler;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Identifies the content of an XLSX workbook without parsing any cells.
+ * <p>
+ * An XLSX file is a zip archive with one XML part per worksheet. The zip central directory
+ * already stores a CRC-32 for every part, so comparing fingerprints tells which worksheets
+ * actually changed between two versions of the file. Cell text lives in the shared strings
+ * part and number formats in the styles part, so a change to either marks every sheet as changed.
+ *
+ * @param lastModified The file modification time in milliseconds
+ * @param size         The file size in bytes
+ * @param sharedCrc    A combined checksum of the parts shared by all sheets
+ * @param sheetCrcs    The CRC-32 of each worksheet part, keyed by sheet name
+ */
+public record WorkbookFingerprint(long lastModified, long size, long sharedCrc, Map<String, Long> sheetCrcs) {
+
+    private static final String WORKBOOK_PART = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS_PART = "xl/_rels/workbook.xml.rels";
+    private static final List<String> SHARED_PARTS = List.of("xl/sharedStrings.xml", "xl/styles.xml");
+    private static final String SPREADSHEET_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    public WorkbookFingerprint {
+        sheetCrcs = Map.copyOf(sheetCrcs);
+    }
+
+    /**
+     * Captures the fingerprint of a workbook on disk.
+     *
+     * @param filePath The path to the XLSX file
+     * @return The fingerprint of the file as it is now
+     * @throws ExcelOperationException if the file cannot be read as an XLSX archive
+     */
+    public static WorkbookFingerprint capture(String filePath) {
+        Path path = Path.of(filePath);
+
+        try (ZipFile zipFile = new ZipFile(path.toFile())) {
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            long size = Files.size(path);
+
+            long sharedCrc = 1;
+            for (String sharedPart : SHARED_PARTS) {
+                ZipEntry entry = zipFile.getEntry(sharedPart);
+                sharedCrc = 31 * sharedCrc + (entry != null ? entry.getCrc() : 0);
+            }
+
+            Map<String, Long> sheetCrcs = new LinkedHashMap<>();
+            resolveSheetParts(zipFile).forEach((sheetName, partName) -> {
+                ZipEntry entry = zipFile.getEntry(partName);
+                sheetCrcs.put(sheetName, entry != null ? entry.getCrc() : -1L);
+            });
+
+            return new WorkbookFingerprint(lastModified, size, sharedCrc, sheetCrcs);
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "capture", "Failed to fingerprint workbook: " + filePath);
+            throw new ExcelOperationException("Failed to fingerprint workbook: " + filePath, error);
+        }
+    }
+
+    /**
+     * Reads the checksum of every part the content of a workbook depends on: the workbook part, its
+     * relationships, the shared parts and every worksheet part. Parts missing from the archive get -1.
+     *
+     * @param filePath The path to the XLSX file
+     * @return The CRC-32 of each part, keyed by part name
+     * @throws ExcelOperationException if the file cannot be read as an XLSX archive
+     */
+    public static Map<String, Long> capturePartCrcs(String filePath) {
+        try (ZipFile zipFile = new ZipFile(filePath)) {
+            List<String> partNames = new ArrayList<>(List.of(WORKBOOK_PART, WORKBOOK_RELS_PART));
+            partNames.addAll(SHARED_PARTS);
+            partNames.addAll(resolveSheetParts(zipFile).values());
+
+            Map<String, Long> partCrcs = new LinkedHashMap<>();
+            for (String partName : partNames) {
+                ZipEntry entry = zipFile.getEntry(partName);
+                partCrcs.put(partName, entry != null ? entry.getCrc() : -1L);
+            }
+            return partCrcs;
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "capturePartCrcs", "Failed to read part checksums of workbook: " + filePath);
+            throw new ExcelOperationException("Failed to read part checksums of workbook: " + filePath, error);
+        }
+    }
+
+    /**
+     * Checks part checksums recorded by {@link #capturePartCrcs} against the workbook on disk.
+     * Only the zip central directory is read; no part is inflated or parsed. Since the workbook part
+     * and its relationships are among the parts, an added, removed or renamed sheet is caught too.
+     *
+     * @param filePath The path to the XLSX file
+     * @param partCrcs The recorded checksums, keyed by part name
+     * @return true if every part still has its recorded checksum, false if one differs or the file cannot be read
+     */
+    public static boolean hasPartCrcs(String filePath, Map<String, Long> partCrcs) {
+        try (ZipFile zipFile = new ZipFile(filePath)) {
+            for (Map.Entry<String, Long> partCrc : partCrcs.entrySet()) {
+                ZipEntry entry = zipFile.getEntry(partCrc.getKey());
+                if ((entry != null ? entry.getCrc() : -1L) != partCrc.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException error) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the file on disk still has the modification time and size recorded here.
+     * This is a cheap pre-check; the zip is only opened when it fails.
+     *
+     * @param filePath The path to the XLSX file
+     * @return true if neither the modification time nor the size changed
+     */
+    public boolean matchesFileAttributes(String filePath) {
+        try {
+            Path path = Path.of(filePath);
+            return Files.getLastModifiedTime(path).toMillis() == lastModified && Files.size(path) == size;
+        } catch (IOException error) {
+            return false;
+        }
+    }
+
+    /**
+     * Determines which of the given sheets differ between an earlier fingerprint and this one.
+     *
+     * @param previous   The fingerprint the sheets were loaded from
+     * @param sheetNames The sheets to check
+     * @return The sheets whose content changed, in the order given
+     */
+    public List<String> changedSheets(WorkbookFingerprint previous, Collection<String> sheetNames) {
+        if (previous.sharedCrc != sharedCrc) {
+            return List.copyOf(sheetNames);
+        }
+        return sheetNames.stream()
+                .filter(sheetName -> !Objects.equals(previous.sheetCrcs.get(sheetName), sheetCrcs.get(sheetName)))
+                .toList();
+    }
+
+    /**
+     * Maps sheet names to their worksheet part names using the workbook part and its relationships.
+     */
+    private static Map<String, String> resolveSheetParts(ZipFile zipFile) throws Exception {
+        Map<String, String> targetsById = new HashMap<>();
+        NodeList relationships = parsePart(zipFile, WORKBOOK_RELS_PART).getElementsByTagNameNS("*", "Relationship");
+        for (int i = 0; i < relationships.getLength(); i++) {
+            Element relationship = (Element) relationships.item(i);
+            String target = relationship.getAttribute("Target");
+            targetsById.put(relationship.getAttribute("Id"),
+                    target.startsWith("/") ? target.substring(1) : "xl/" + target);
+        }
+
+        Map<String, String> sheetParts = new LinkedHashMap<>();
+        NodeList sheets = parsePart(zipFile, WORKBOOK_PART).getElementsByTagNameNS(SPREADSHEET_NS, "sheet");
+        for (int i = 0; i < sheets.getLength(); i++) {
+            Element sheet = (Element) sheets.item(i);
+            String target = targetsById.get(sheet.getAttributeNS(RELATIONSHIPS_NS, "id"));
+            if (target != null) {
+                sheetParts.put(sheet.getAttribute("name"), target);
+            }
+        }
+        return sheetParts;
+    }
+
+    private static Document parsePart(ZipFile zipFile, String partName) throws Exception {
+        ZipEntry entry = zipFile.getEntry(partName);
+        if (entry == null) {
+            throw new ExcelOperationException("Workbook part not found: " + partName);
+        }
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            return factory.newDocumentBuilder().parse(inputStream);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class WorkbookManager implements AutoCloseable {
 
@@ -41,6 +43,19 @@ public class WorkbookManager implements AutoCloseable {
         }
     }
 
+    /**
+     * Retrieves the names of all sheets in the workbook, in workbook order.
+     *
+     * @return The list of sheet names
+     */
+    public List<String> getSheetNames() {
+        List<String> sheetNames = new ArrayList<>();
+        for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+            sheetNames.add(workbook.getSheetName(i));
+        }
+        return sheetNames;
+    }
+
     /**
      * Closes the workbook and releases any system resources it is using. This
      * method must be called after the workbook is no longer needed, otherwise
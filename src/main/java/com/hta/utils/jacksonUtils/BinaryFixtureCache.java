@@ -0,0 +1,152 @@
+package com.hta.utils.jacksonUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Smile copies of parsed JSON fixtures, named after a hash of the source path and of its content.
+ * <p>
+ * Smile is Jackson's binary JSON encoding. It carries the same tree but skips text tokenizing
+ * and number parsing, so reading it back is several times faster than parsing the source.
+ * Repeated field names and short string values are written once and referred back to afterwards.
+ * A copy is only used when its name matches the hash of the current source bytes, so an edited
+ * fixture is never served from a stale copy. Older copies of the same fixture are removed
+ * when a new one is written; the path hash keeps same-named fixtures in different directories apart.
+ * <p>
+ * Copies are kept in {@value #DEFAULT_CACHE_DIR} unless the {@value #CACHE_DIR_PROPERTY} system
+ * property says otherwise; set {@value #ENABLED_PROPERTY} to false to disable the cache.
+ * Failures to read or write a copy are logged and treated as a cache miss.
+ */
+final class BinaryFixtureCache {
+
+    private static final Logger logger = LoggerUtils.getLogger(BinaryFixtureCache.class);
+
+    static final String DEFAULT_CACHE_DIR = "target/json-fixture-cache";
+    static final String CACHE_DIR_PROPERTY = "jsonFixtureCacheDir";
+    static final String ENABLED_PROPERTY = "jsonBinaryCache";
+    private static final String FILE_EXTENSION = ".smile";
+
+    private static final ObjectMapper smileMapper = SmileMapper.builder(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build())
+            .build();
+    private static final ObjectReader smileTreeReader = smileMapper.reader().with(JsonFixtureRegistry.INTERNING_NODE_FACTORY);
+
+    private BinaryFixtureCache() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    /**
+     * Computes the hash that names the binary copy of the given source content.
+     */
+    static String contentHash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException error) {
+            throw new IllegalStateException("SHA-256 is not available", error);
+        }
+    }
+
+    /**
+     * Reads the binary copy of a fixture if one exists for the given content hash.
+     *
+     * @param source      the source JSON file
+     * @param contentHash the hash of the current source content
+     * @return the tree stored in the copy, or empty on a miss
+     */
+    static Optional<JsonNode> read(Path source, String contentHash) {
+        Path binaryPath = binaryPathFor(source, contentHash);
+        if (!Files.isRegularFile(binaryPath)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(smileTreeReader.readTree(Files.readAllBytes(binaryPath)));
+        } catch (IOException error) {
+            logger.warn("Ignoring unreadable binary fixture copy '{}': {}", binaryPath, error.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the binary copy of a fixture and removes copies made from older content.
+     *
+     * @param source      the source JSON file
+     * @param contentHash the hash of the content the tree was parsed from
+     * @param tree        the parsed tree
+     */
+    static void write(Path source, String contentHash, JsonNode tree) {
+        Path binaryPath = binaryPathFor(source, contentHash);
+        try {
+            Files.createDirectories(binaryPath.toAbsolutePath().getParent());
+            removeStaleCopies(source, binaryPath);
+
+            // A temp file of its own, so concurrent writers of the same copy never write into one file
+            Path tempPath = Files.createTempFile(binaryPath.getParent(), binaryPath.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+                    smileMapper.writeValue(outputStream, tree);
+                }
+                Files.move(tempPath, binaryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempPath);
+            }
+            logger.debug("Wrote binary copy of '{}' to '{}'", source, binaryPath);
+        } catch (IOException error) {
+            logger.warn("Failed to write binary fixture copy '{}': {}", binaryPath, error.getMessage());
+        }
+    }
+
+    private static Path binaryPathFor(Path source, String contentHash) {
+        String cacheDir = System.getProperty(CACHE_DIR_PROPERTY, DEFAULT_CACHE_DIR);
+        return Path.of(cacheDir, copyPrefix(source) + contentHash + FILE_EXTENSION);
+    }
+
+    private static void removeStaleCopies(Path source, Path currentCopy) throws IOException {
+        try (DirectoryStream<Path> copies = Files.newDirectoryStream(currentCopy.getParent(),
+                copyPrefix(source) + "*" + FILE_EXTENSION)) {
+            for (Path copy : copies) {
+                if (!copy.equals(currentCopy)) {
+                    Files.deleteIfExists(copy);
+                }
+            }
+        }
+    }
+
+    /**
+     * The part of a copy's name shared by every copy of one source file: its base name and a hash of its path.
+     */
+    private static String copyPrefix(Path source) {
+        String sourcePath = source.toAbsolutePath().normalize().toString();
+        String pathHash = contentHash(sourcePath.getBytes(StandardCharsets.UTF_8)).substring(0, 8);
+        return baseName(source) + "." + pathHash + ".";
+    }
+
+    private static String baseName(Path source) {
+        String fileName = source.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        return extension > 0 ? fileName.substring(0, extension) : fileName;
+    }
+}
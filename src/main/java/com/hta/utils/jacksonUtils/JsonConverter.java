@@ -3,33 +3,55 @@ package com.hta.utils.jacksonUtils;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JsonConverter {
 
-    // Initialize ObjectMapper
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Set -DjsonBlackbird=true to replace reflection-based property access with generated lambdas
+    private static final String BLACKBIRD_PROPERTY = "jsonBlackbird";
+
+    // Built once and never reconfigured, so it is safe to share between threads from the start
+    private static final ObjectMapper objectMapper = createJsonMapper(
+            Boolean.parseBoolean(System.getProperty(BLACKBIRD_PROPERTY, "false")));
+
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
 
     private JsonConverter() {}
 
     /**
-     * Initialize the ObjectMapper with some commonly used features.
-     * This method:
+     * Builds an immutable JSON mapper with the commonly used features.
+     * The mapper:
      * <ul>
      *     <li>Registers the {@link JavaTimeModule} to support Java 8 Date/Time types</li>
-     *     <li>Configures the mapper to ignore unknown properties when deserializing JSON</li>
-     *     <li>Configures the mapper to not write dates as timestamps</li>
-     *     <li>Sets the serialization inclusion to {@link JsonInclude.Include#NON_NULL} to exclude null fields</li>
+     *     <li>Optionally registers the {@link BlackbirdModule}, which replaces reflective getter, setter and
+     *     constructor calls with generated lambdas</li>
+     *     <li>Ignores unknown properties when deserializing JSON</li>
+     *     <li>Does not write dates as timestamps</li>
+     *     <li>Uses {@link JsonInclude.Include#NON_NULL} serialization inclusion to exclude null fields</li>
      * </ul>
+     *
+     * @param useBlackbird whether to register the Blackbird module
+     * @return the configured mapper
      */
-    public static void initJsonMapper() {
-        Objects.requireNonNull(objectMapper).registerModule(new JavaTimeModule());
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    public static ObjectMapper createJsonMapper(boolean useBlackbird) {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+                .serializationInclusion(JsonInclude.Include.NON_NULL);
+        if (useBlackbird) {
+            builder.addModule(new BlackbirdModule());
+        }
+        return builder.build();
     }
 
     /**
@@ -41,6 +63,26 @@ public class JsonConverter {
         return objectMapper;
     }
 
+    /**
+     * Gets the cached reader specialized for the given type.
+     *
+     * @param type The type to read
+     * @return An immutable, thread-safe reader for the type
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    /**
+     * Gets the cached writer specialized for the given type.
+     *
+     * @param type The type to write
+     * @return An immutable, thread-safe writer for the type
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
     /**
      * Serializes the given object to a JSON string.
      *
@@ -49,7 +91,10 @@ public class JsonConverter {
      * @throws Exception If the serialization fails
      */
     public static String serialize(Object value) throws Exception {
-        return objectMapper.writeValueAsString(value);
+        if (value == null) {
+            return objectMapper.writeValueAsString(null);
+        }
+        return writerFor(value.getClass()).writeValueAsString(value);
     }
 
     /**
@@ -63,6 +108,6 @@ public class JsonConverter {
      * @throws Exception If the deserialization fails
      */
     public static <T> T deserialize(String json, Class<T> clazz) throws Exception {
-        return objectMapper.readValue(json, clazz);
+        return readerFor(clazz).readValue(json);
     }
 }
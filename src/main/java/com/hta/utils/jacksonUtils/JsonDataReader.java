@@ -1,48 +1,76 @@
 package com.hta.utils.jacksonUtils;
 
+import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.hta.utils.logging.ErrorHandler;
 import com.hta.utils.logging.LoggerUtils;
+import com.hta.utils.recordBinding.RecordBinder;
 import org.apache.logging.log4j.Logger;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class JsonDataReader {
 
     private static final Logger logger = LoggerUtils.getLogger(JsonDataReader.class);
-    private final JsonNode jsonData;
+
+    // Marks a cached pointer that resolves to nothing, since ConcurrentHashMap cannot hold null
+    private static final Object MISSING = new Object();
+
+    private final Function<String, JsonNode> sectionSource;
+    private final StreamingJsonFixture streamingFixture;
+    private final Map<String, RecordBinder<?>> recordBinders = new ConcurrentHashMap<>();
+    private final Map<Accessor, Object> cachedValues = new ConcurrentHashMap<>();
+
+    // Identifies one (section, key or index) read; the key is null for index reads
+    private record Accessor(String section, String key, int index, Class<?> type) {
+
+        private JsonPointer toPointer() {
+            return key != null ? JsonPointer.empty().appendProperty(key) : JsonPointer.empty().appendIndex(index);
+        }
+    }
 
     /**
      * Constructs a JsonDataReader with the specified file path.
+     * The file is parsed once per JVM and its tree is shared through {@link JsonFixtureRegistry}.
      *
      * @param filePath the path to the JSON file
      * @throws BookingDataReaderException if the JSON file cannot be loaded
      */
     public JsonDataReader(String filePath) {
-        this.jsonData = loadJson(filePath);
+        this(JsonFixtureRegistry.getTree(filePath)::path, null);
     }
 
-    private static JsonNode loadJson(String filePath) {
-        try {
-            return JsonConverter.getObjectMapper().readTree(new File(filePath));
-        } catch (IOException error) {
-            String errorMsg = "Failed to load JSON file: " + filePath;
-            ErrorHandler.logError(error, "loadJson", errorMsg);
-            throw new BookingDataReaderException(errorMsg, error);
-        }
+    private JsonDataReader(Function<String, JsonNode> sectionSource, StreamingJsonFixture streamingFixture) {
+        this.sectionSource = sectionSource;
+        this.streamingFixture = streamingFixture;
+    }
+
+    /**
+     * Creates a reader for large fixtures that never holds the whole file in memory.
+     * The file is indexed in one streaming pass; each section is parsed when it is first read,
+     * and {@link #streamData} reads array sections element by element straight from the file.
+     *
+     * @param filePath the path to the JSON file
+     * @return a reader backed by a section index of the file
+     * @throws BookingDataReaderException if the JSON file cannot be indexed
+     */
+    public static JsonDataReader streaming(String filePath) {
+        StreamingJsonFixture fixture = new StreamingJsonFixture(filePath);
+        return new JsonDataReader(fixture::getSection, fixture);
+    }
+
+    private JsonNode section(String section) {
+        return sectionSource.apply(section);
     }
 
     private <T> Optional<T> getData(String section, String key, Class<T> type) {
         try {
-            JsonNode node = jsonData.path(section).path(key);
-            if (node.isMissingNode() || node.isNull()) {
-                return Optional.empty();
-            }
-            return Optional.ofNullable(JsonConverter.getObjectMapper().convertValue(node, type));
+            Object value = readCached(new Accessor(section, key, -1, type));
+            return value == MISSING ? Optional.empty() : Optional.ofNullable(type.cast(value));
         } catch (Exception error) {
             ErrorHandler.logError(error, "getData", "Failed to retrieve data for section: " + section + ", key: " + key);
             return Optional.empty();
@@ -66,9 +94,11 @@ public class JsonDataReader {
 
     private <T> T getDataByIndex(String section, int index, Class<T> type) {
         try {
-            JsonNode node = jsonData.path(section);
-            if (node.isArray() && index >= 0 && index < node.size()) {
-                return JsonConverter.getObjectMapper().convertValue(node.get(index), type);
+            if (index >= 0 && section(section).isArray()) {
+                Object value = readCached(new Accessor(section, null, index, type));
+                if (value != MISSING) {
+                    return type.cast(value);
+                }
             }
         } catch (Exception error) {
             ErrorHandler.logError(error, "getDataByIndex", "Failed to retrieve data from section: " + section + " at index: " + index);
@@ -91,10 +121,10 @@ public class JsonDataReader {
     public  <T> List<T> getAllData(String section, Class<T> type) {
         List<T> values = new ArrayList<>();
         try {
-            JsonNode node = jsonData.path(section);
+            JsonNode node = section(section);
             if (node.isArray()) {
                 for (JsonNode item : node) {
-                    values.add(JsonConverter.getObjectMapper().convertValue(item, type));
+                    values.add(readValue(item, type));
                 }
             }
         } catch (Exception error) {
@@ -115,6 +145,157 @@ public class JsonDataReader {
         return getAllData(section, Boolean.class);
     }
 
+    /**
+     * Compiles the accessor to a JSON Pointer and converts the value once; later reads of the
+     * same accessor are a single map lookup. Sections are never modified after loading, so entries never go stale.
+     *
+     * @return the converted value, or {@link #MISSING} if the accessor resolves to nothing or null
+     */
+    private Object readCached(Accessor accessor) {
+        return cachedValues.computeIfAbsent(accessor, key -> {
+            JsonNode node = section(key.section()).at(key.toPointer());
+            if (node.isMissingNode() || node.isNull()) {
+                return MISSING;
+            }
+            Object value = readValue(node, key.type());
+            return value != null ? value : MISSING;
+        });
+    }
+
+    /**
+     * Reads common scalar types straight from the node and falls back to
+     * {@code convertValue} for everything else, including coercions such as "12" to int.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T readValue(JsonNode node, Class<T> type) {
+        if (type == String.class && node.isTextual()) {
+            return (T) node.textValue();
+        } else if (type == Integer.class && node.isIntegralNumber() && node.canConvertToInt()) {
+            return (T) Integer.valueOf(node.intValue());
+        } else if (type == Long.class && node.isIntegralNumber() && node.canConvertToLong()) {
+            return (T) Long.valueOf(node.longValue());
+        } else if (type == Double.class && node.isNumber()) {
+            return (T) Double.valueOf(node.doubleValue());
+        } else if (type == Boolean.class && node.isBoolean()) {
+            return (T) Boolean.valueOf(node.booleanValue());
+        }
+        return JsonConverter.getObjectMapper().convertValue(node, type);
+    }
+
+    /**
+     * Streams the elements of an array section, converting each one only when it is consumed.
+     * A missing or non-array section yields an empty stream. For a {@link #streaming} reader the
+     * elements are read from the file as they are consumed, and the stream closes the file when exhausted.
+     *
+     * @param section the array section to stream
+     * @param type    the type each element is converted to
+     * @return sequential stream of converted elements, in element order
+     * @throws BookingDataReaderException if the section cannot be read or an element cannot be converted,
+     *                                    thrown when the failing element is consumed
+     */
+    public <T> Stream<T> streamData(String section, Class<T> type) {
+        Stream<JsonNode> elements;
+        if (streamingFixture != null) {
+            elements = streamingFixture.streamArray(section);
+        } else {
+            JsonNode node = section(section);
+            if (!node.isArray()) {
+                return Stream.empty();
+            }
+            elements = StreamSupport.stream(node.spliterator(), false);
+        }
+        // A failed element ends the stream, so release the file a streaming reader holds open right away
+        Stream<JsonNode> source = elements;
+        return elements.map(item -> readStreamedValue(section, item, type, source::close));
+    }
+
+    /**
+     * Streams the elements of an array section as strings, converting each one only when it is consumed.
+     *
+     * @param section the array section to stream
+     * @return sequential stream of strings, in element order
+     * @throws BookingDataReaderException if the section cannot be read or an element cannot be converted,
+     *                                    thrown when the failing element is consumed
+     */
+    public Stream<String> streamStrings(String section) {
+        return streamData(section, String.class);
+    }
+
+    private static <T> T readStreamedValue(String section, JsonNode item, Class<T> type, Runnable onFailure) {
+        try {
+            return readValue(item, type);
+        } catch (Exception error) {
+            onFailure.run();
+            String errorMsg = "Failed to convert an element of section: " + section + " to " + type.getSimpleName();
+            ErrorHandler.logError(error, "streamData", errorMsg);
+            throw new BookingDataReaderException(errorMsg, error);
+        }
+    }
+
+    /**
+     * Binds a section to a record type. An array section yields one record per element,
+     * an object section yields a single record. The binding is compiled once per section and
+     * record type against the field names present in the section.
+     *
+     * @param section    the section to bind
+     * @param recordType the record class each element is bound to
+     * @return immutable list of bound records, in element order
+     * @throws IllegalArgumentException if the section is missing or holds a scalar
+     */
+    public <R extends Record> List<R> getRecords(String section, Class<R> recordType) {
+        JsonNode node = section(section);
+        if (!node.isArray() && !node.isObject()) {
+            throw new IllegalArgumentException("Section is missing or not an object or array: " + section);
+        }
+
+        List<JsonNode> elements = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(elements::add);
+        } else {
+            elements.add(node);
+        }
+
+        @SuppressWarnings("unchecked")
+        RecordBinder<R> binder = (RecordBinder<R>) recordBinders.computeIfAbsent(
+                section + "#" + recordType.getName(),
+                key -> RecordBinder.compile(recordType, collectFieldNames(elements)));
+
+        List<String> columns = binder.boundColumns();
+        List<R> records = new ArrayList<>(elements.size());
+        for (JsonNode element : elements) {
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = scalarValue(element.get(columns.get(i)));
+            }
+            records.add(binder.bindValues(values));
+        }
+        return List.copyOf(records);
+    }
+
+    private static Set<String> collectFieldNames(List<JsonNode> elements) {
+        Set<String> fieldNames = new LinkedHashSet<>();
+        for (JsonNode element : elements) {
+            element.fieldNames().forEachRemaining(fieldNames::add);
+        }
+        return fieldNames;
+    }
+
+    /**
+     * Reads a scalar node directly into its Java value; containers are returned as nodes.
+     */
+    private static Object scalarValue(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return null;
+        } else if (node.isTextual()) {
+            return node.textValue();
+        } else if (node.isBoolean()) {
+            return node.booleanValue();
+        } else if (node.isNumber()) {
+            return node.numberValue();
+        }
+        return node;
+    }
+
     /**
      * Custom exception for JSON data reading errors.
      */
@@ -0,0 +1,185 @@
+package com.hta.utils.jacksonUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.hta.utils.StringInterner;
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of parsed JSON fixtures.
+ * <p>
+ * Each file is parsed once per JVM and the tree is shared by every {@link JsonDataReader} created for it.
+ * Entries are keyed by canonical path and remember the modification time they were parsed at, so an
+ * edited fixture is parsed again on its next use. Loading is single-flight: when several threads ask for
+ * the same fixture at once, one parses it and the others wait for its result. Parsed trees are also
+ * kept as binary copies on disk, so later JVMs load unchanged fixtures without parsing text.
+ * <p>
+ * The shared trees are never handed out directly, only through readers that do not modify them.
+ */
+public final class JsonFixtureRegistry {
+
+    private static final Logger logger = LoggerUtils.getLogger(JsonFixtureRegistry.class);
+
+    // Field names are already interned by Jackson; this does the same for text values
+    static final JsonNodeFactory INTERNING_NODE_FACTORY = new JsonNodeFactory() {
+        @Override
+        public TextNode textNode(String text) {
+            return super.textNode(StringInterner.intern(text));
+        }
+    };
+
+    // Readers are immutable, so one configured instance serves every parse
+    static final ObjectReader TREE_READER = JsonConverter.getObjectMapper().reader().with(INTERNING_NODE_FACTORY);
+
+    private static final Map<Path, Fixture> fixtures = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder loads = new LongAdder();
+    private static final LongAdder reloads = new LongAdder();
+    private static final LongAdder binaryLoads = new LongAdder();
+    private static final LongAdder parseMillis = new LongAdder();
+
+    private record Fixture(long lastModified, FutureTask<JsonNode> tree) {
+    }
+
+    /**
+     * Snapshot of the registry statistics.
+     *
+     * @param fixtures    The number of fixtures currently registered
+     * @param hits        The number of requests served from an already parsed or in-flight tree
+     * @param loads       The number of times a file was parsed
+     * @param reloads     The number of loads caused by a changed modification time
+     * @param binaryLoads The number of loads served from a binary copy, see {@link BinaryFixtureCache}
+     * @param parseMillis The total time spent parsing, in milliseconds
+     */
+    public record Statistics(int fixtures, long hits, long loads, long reloads, long binaryLoads, long parseMillis) {
+    }
+
+    private JsonFixtureRegistry() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    /**
+     * Retrieves the parsed tree of a JSON file, parsing it if it is not registered or changed on disk.
+     *
+     * @param filePath the path to the JSON file
+     * @return the shared tree of the file
+     * @throws JsonDataReader.BookingDataReaderException if the file cannot be read or parsed
+     */
+    static JsonNode getTree(String filePath) {
+        Path canonicalPath;
+        long lastModified;
+        try {
+            canonicalPath = Path.of(filePath).toRealPath();
+            lastModified = Files.getLastModifiedTime(canonicalPath).toMillis();
+        } catch (IOException error) {
+            String errorMsg = "Failed to load JSON file: " + filePath;
+            ErrorHandler.logError(error, "getTree", errorMsg);
+            throw new JsonDataReader.BookingDataReaderException(errorMsg, error);
+        }
+
+        Fixture fixture = fixtures.compute(canonicalPath, (path, existing) -> {
+            if (existing != null && existing.lastModified() == lastModified) {
+                hits.increment();
+                return existing;
+            }
+            if (existing != null) {
+                reloads.increment();
+            }
+            return new Fixture(lastModified, new FutureTask<>(() -> parse(path)));
+        });
+
+        // Only the first caller actually parses; the others block in get() until it is done
+        fixture.tree().run();
+        try {
+            return fixture.tree().get();
+        } catch (ExecutionException error) {
+            // Drop the failed entry so the next caller retries instead of seeing the same failure
+            fixtures.remove(canonicalPath, fixture);
+            if (error.getCause() instanceof JsonDataReader.BookingDataReaderException readerException) {
+                throw readerException;
+            }
+            throw new JsonDataReader.BookingDataReaderException("Failed to load JSON file: " + filePath, error.getCause());
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new JsonDataReader.BookingDataReaderException("Interrupted while loading JSON file: " + filePath, error);
+        }
+    }
+
+    /**
+     * Retrieves the current registry statistics.
+     *
+     * @return A snapshot of the statistics
+     */
+    public static Statistics getStatistics() {
+        return new Statistics(fixtures.size(), hits.sum(), loads.sum(), reloads.sum(), binaryLoads.sum(), parseMillis.sum());
+    }
+
+    /**
+     * Logs the current registry statistics.
+     */
+    public static void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("JSON fixtures: {} registered, {} hit(s), {} load(s) ({} reload(s), {} from binary copies) taking {} ms",
+                statistics.fixtures(), statistics.hits(), statistics.loads(), statistics.reloads(),
+                statistics.binaryLoads(), statistics.parseMillis());
+    }
+
+    /**
+     * Removes every registered fixture and resets the statistics.
+     */
+    public static void clear() {
+        fixtures.clear();
+        hits.reset();
+        loads.reset();
+        reloads.reset();
+        binaryLoads.reset();
+        parseMillis.reset();
+    }
+
+    private static JsonNode parse(Path path) {
+        long startTime = System.nanoTime();
+        try {
+            byte[] content = Files.readAllBytes(path);
+            String contentHash = null;
+            JsonNode tree = null;
+
+            if (BinaryFixtureCache.isEnabled()) {
+                contentHash = BinaryFixtureCache.contentHash(content);
+                tree = BinaryFixtureCache.read(path, contentHash).orElse(null);
+            }
+            boolean fromBinaryCopy = tree != null;
+            if (tree == null) {
+                tree = TREE_READER.readTree(content);
+                if (contentHash != null) {
+                    BinaryFixtureCache.write(path, contentHash, tree);
+                }
+            }
+
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            loads.increment();
+            parseMillis.add(elapsedMillis);
+            if (fromBinaryCopy) {
+                binaryLoads.increment();
+            }
+            logger.info("Parsed JSON fixture '{}'{} in {} ms", path, fromBinaryCopy ? " from binary copy" : "", elapsedMillis);
+            return tree;
+        } catch (IOException error) {
+            String errorMsg = "Failed to load JSON file: " + path;
+            ErrorHandler.logError(error, "parse", errorMsg);
+            throw new JsonDataReader.BookingDataReaderException(errorMsg, error);
+        }
+    }
+}
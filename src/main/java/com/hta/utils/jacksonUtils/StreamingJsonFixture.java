@@ -0,0 +1,256 @@
+package com.hta.utils.jacksonUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A JSON fixture read section by section instead of as one tree.
+ * <p>
+ * Opening the fixture makes a single streaming pass over the file that records the byte range of
+ * every top-level section and skips over the values themselves. A section is parsed into a tree only
+ * when it is first requested, and array sections can be streamed element by element without
+ * materializing them at all. Memory use is then bounded by the sections a run actually uses rather
+ * than by the size of the file.
+ * <p>
+ * Like a parsed tree, the fixture is a snapshot: reading a section that is not yet materialized
+ * after the file changed on disk fails instead of returning content from the wrong offsets.
+ */
+final class StreamingJsonFixture {
+
+    private static final Logger logger = LoggerUtils.getLogger(StreamingJsonFixture.class);
+
+    private final Path path;
+    private final Map<String, JsonNode> materializedSections = new ConcurrentHashMap<>();
+    private final SectionIndex index;
+
+    private record SectionRange(long start, long end) {
+    }
+
+    private record SectionIndex(long lastModified, long size, Map<String, SectionRange> sections) {
+    }
+
+    StreamingJsonFixture(String filePath) {
+        this.path = Path.of(filePath);
+        this.index = buildIndex();
+    }
+
+    /**
+     * Retrieves a top-level section, parsing it on first use.
+     *
+     * @param section the section name
+     * @return the section tree, or a missing node if the file has no such section
+     */
+    JsonNode getSection(String section) {
+        JsonNode materialized = materializedSections.get(section);
+        if (materialized != null) {
+            return materialized;
+        }
+        SectionRange range = index.sections().get(section);
+        if (range == null) {
+            return MissingNode.getInstance();
+        }
+        return materializedSections.computeIfAbsent(section, name -> parseSection(name, checkedRange(range)));
+    }
+
+    /**
+     * Streams the elements of an array section straight from the file, one element at a time.
+     * The file is held open until the stream is exhausted or closed.
+     *
+     * @param section the array section to stream
+     * @return a lazy stream of element trees, empty if the section is missing or not an array
+     * @throws JsonDataReader.BookingDataReaderException if the section cannot be read
+     */
+    Stream<JsonNode> streamArray(String section) {
+        // An already materialized section is cheaper to walk in memory than to re-read
+        JsonNode materialized = materializedSections.get(section);
+        if (materialized != null) {
+            return materialized.isArray()
+                    ? StreamSupport.stream(materialized.spliterator(), false)
+                    : Stream.empty();
+        }
+
+        SectionRange range = index.sections().get(section);
+        if (range == null) {
+            return Stream.empty();
+        }
+
+        try {
+            JsonParser parser = openParser(checkedRange(range));
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                return Stream.empty();
+            }
+            ArrayElementIterator elements = new ArrayElementIterator(parser, JsonFixtureRegistry.TREE_READER, section);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED), false)
+                    .onClose(elements::close);
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "streamArray", "Failed to stream section: " + section + " of " + path);
+            throw new JsonDataReader.BookingDataReaderException("Failed to stream section: " + section, error);
+        }
+    }
+
+    /**
+     * Returns a range of the index before it is read from the file, failing if the file no longer
+     * matches the index, since the recorded byte ranges would then point into different content.
+     * Only reads that go to the file are checked, so sections already in memory cost no file system call.
+     */
+    private SectionRange checkedRange(SectionRange range) {
+        if (!isUnchanged(index)) {
+            throw new JsonDataReader.BookingDataReaderException(
+                    "JSON file changed since it was indexed, create a new reader: " + path, null);
+        }
+        return range;
+    }
+
+    private boolean isUnchanged(SectionIndex sectionIndex) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.lastModifiedTime().toMillis() == sectionIndex.lastModified()
+                    && attributes.size() == sectionIndex.size();
+        } catch (IOException error) {
+            return false;
+        }
+    }
+
+    private SectionIndex buildIndex() {
+        long startTime = System.nanoTime();
+        try {
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            long size = Files.size(path);
+            Map<String, SectionRange> sections = new LinkedHashMap<>();
+
+            try (JsonParser parser = jsonFactory().createParser(Files.newInputStream(path))) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a JSON object at the root of " + path);
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String section = parser.currentName();
+                    parser.nextToken();
+                    long start = parser.currentTokenLocation().getByteOffset();
+                    parser.skipChildren();
+                    parser.finishToken(); // scalar values are otherwise only read up to their first byte
+                    long end = parser.currentLocation().getByteOffset();
+                    sections.put(section, new SectionRange(start, end));
+                }
+            }
+
+            logger.info("Indexed {} section(s) of JSON fixture '{}' ({} bytes) in {} ms",
+                    sections.size(), path, size, (System.nanoTime() - startTime) / 1_000_000);
+            return new SectionIndex(lastModified, size, Map.copyOf(sections));
+        } catch (IOException error) {
+            String errorMsg = "Failed to index JSON file: " + path;
+            ErrorHandler.logError(error, "buildIndex", errorMsg);
+            throw new JsonDataReader.BookingDataReaderException(errorMsg, error);
+        }
+    }
+
+    private JsonNode parseSection(String section, SectionRange range) {
+        long startTime = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(range.end() - range.start()));
+            while (buffer.hasRemaining() && channel.read(buffer, range.start() + buffer.position()) >= 0) {
+                // keep reading until the whole section is in the buffer
+            }
+            JsonNode node = JsonFixtureRegistry.TREE_READER.readTree(buffer.array(), 0, buffer.position());
+            logger.debug("Materialized section '{}' of '{}' in {} ms", section, path, (System.nanoTime() - startTime) / 1_000_000);
+            return node;
+        } catch (IOException | ArithmeticException error) {
+            String errorMsg = "Failed to read section: " + section + " of " + path;
+            ErrorHandler.logError(error, "parseSection", errorMsg);
+            throw new JsonDataReader.BookingDataReaderException(errorMsg, error);
+        }
+    }
+
+    private JsonParser openParser(SectionRange range) throws IOException {
+        SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ).position(range.start());
+        InputStream inputStream = Channels.newInputStream(channel);
+        return jsonFactory().createParser(inputStream);
+    }
+
+    private static JsonFactory jsonFactory() {
+        return JsonConverter.getObjectMapper().getFactory();
+    }
+
+    /**
+     * Reads one array element per call and closes the parser once the array ends.
+     */
+    private final class ArrayElementIterator implements Iterator<JsonNode>, AutoCloseable {
+
+        private final JsonParser parser;
+        private final ObjectReader elementReader;
+        private final String section;
+        private JsonToken nextToken;
+
+        private ArrayElementIterator(JsonParser parser, ObjectReader elementReader, String section) {
+            this.parser = parser;
+            this.elementReader = elementReader;
+            this.section = section;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if (nextToken == null && !parser.isClosed()) {
+                    nextToken = parser.nextToken();
+                    if (nextToken == JsonToken.END_ARRAY || nextToken == null) {
+                        close();
+                    }
+                }
+                return !parser.isClosed();
+            } catch (IOException error) {
+                throw readFailure(error);
+            }
+        }
+
+        @Override
+        public JsonNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                nextToken = null;
+                return elementReader.readTree(parser);
+            } catch (IOException error) {
+                throw readFailure(error);
+            }
+        }
+
+        private JsonDataReader.BookingDataReaderException readFailure(IOException error) {
+            close();
+            String errorMsg = "Failed to stream section: " + section + " of " + path;
+            ErrorHandler.logError(error, "streamArray", errorMsg);
+            return new JsonDataReader.BookingDataReaderException(errorMsg, error);
+        }
+
+        @Override
+        public void close() {
+            try {
+                parser.close();
+            } catch (IOException error) {
+                logger.warn("Failed to close JSON parser: {}", error.getMessage());
+            }
+        }
+    }
+}
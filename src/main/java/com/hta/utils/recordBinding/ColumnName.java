@@ -0,0 +1,19 @@
+package com.hta.utils.recordBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a record component to a column or field whose name differs from the component name.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface ColumnName {
+
+    /**
+     * @return the exact header or field name the component is read from
+     */
+    String value();
+}
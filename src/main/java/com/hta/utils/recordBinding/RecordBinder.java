@@ -0,0 +1,284 @@
+package com.hta.utils.recordBinding;
+
+import com.hta.utils.logging.ErrorHandler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Binds tabular rows to a Java record through its canonical constructor.
+ * <p>
+ * A binder is compiled once per record type and header list: every record component is resolved
+ * to a header, a value converter is chosen for its type and the canonical constructor is turned
+ * into a spreading {@link MethodHandle}. Binding a row is then a fixed sequence of lookups,
+ * conversions and a single constructor call.
+ * <p>
+ * Components are matched to headers by {@link ColumnName} if present, otherwise by name, ignoring
+ * case, spaces, dashes and underscores. Missing columns are reported when the binder is compiled,
+ * and values that cannot be converted are reported with their column name when a row is bound.
+ *
+ * @param <R> the record type produced by this binder
+ */
+public final class RecordBinder<R extends Record> {
+
+    private final Class<R> recordType;
+    private final String[] columns;
+    private final Function<Object, Object>[] converters;
+    private final boolean[] primitives;
+    private final MethodHandle constructor;
+
+    private RecordBinder(Class<R> recordType, String[] columns, Function<Object, Object>[] converters,
+                         boolean[] primitives, MethodHandle constructor) {
+        this.recordType = recordType;
+        this.columns = columns;
+        this.converters = converters;
+        this.primitives = primitives;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Compiles a binder for the given record type against the given headers.
+     *
+     * @param recordType The record class to bind rows to
+     * @param headers    The column headers available in the source data
+     * @param <R>        The record type
+     * @return The compiled binder
+     * @throws RecordBindingException if a component has no matching header or an unsupported type
+     */
+    public static <R extends Record> RecordBinder<R> compile(Class<R> recordType, Collection<String> headers) {
+        RecordComponent[] components = recordType.getRecordComponents();
+        if (components == null) {
+            throw new RecordBindingException(recordType.getName() + " is not a record");
+        }
+
+        Map<String, String> headersByKey = new HashMap<>();
+        for (String header : headers) {
+            headersByKey.putIfAbsent(normalize(header), header);
+        }
+
+        String[] columns = new String[components.length];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Function<Object, Object>[] converters = new Function[components.length];
+        boolean[] primitives = new boolean[components.length];
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        List<String> missingColumns = new ArrayList<>();
+
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            ColumnName columnName = component.getAnnotation(ColumnName.class);
+            String column = columnName != null
+                    ? (headers.contains(columnName.value()) ? columnName.value() : null)
+                    : headersByKey.get(normalize(component.getName()));
+
+            if (column == null) {
+                missingColumns.add(columnName != null ? columnName.value() : component.getName());
+            }
+
+            columns[i] = column;
+            parameterTypes[i] = component.getType();
+            primitives[i] = component.getType().isPrimitive();
+            converters[i] = converterFor(component.getType(), recordType, component.getName());
+        }
+
+        if (!missingColumns.isEmpty()) {
+            throw new RecordBindingException(String.format("Cannot bind %s: missing columns %s (available: %s)",
+                    recordType.getSimpleName(), missingColumns, headers));
+        }
+
+        return new RecordBinder<>(recordType, columns, converters, primitives,
+                spreadingConstructor(recordType, parameterTypes));
+    }
+
+    /**
+     * Retrieves the source column each record component is read from, in component order.
+     *
+     * @return The bound column names
+     */
+    public List<String> boundColumns() {
+        return List.of(columns);
+    }
+
+    /**
+     * Binds a row keyed by column name.
+     *
+     * @param row The row values keyed by header
+     * @return The bound record
+     * @throws RecordBindingException if a value cannot be converted to its component type
+     */
+    public R bind(Map<String, ?> row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = row.get(columns[i]);
+        }
+        return bindValues(values);
+    }
+
+    /**
+     * Binds raw values given in the same order as {@link #boundColumns()}.
+     * The array is converted in place.
+     *
+     * @param values The raw column values, in component order
+     * @return The bound record
+     * @throws RecordBindingException if a value cannot be converted to its component type
+     */
+    public R bindValues(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = convert(i, values[i]);
+        }
+
+        try {
+            return recordType.cast(constructor.invokeExact(values));
+        } catch (Throwable error) {
+            ErrorHandler.logError(error, "bindValues", "Failed to construct " + recordType.getSimpleName());
+            throw new RecordBindingException("Failed to construct " + recordType.getSimpleName(), error);
+        }
+    }
+
+    /**
+     * Binds every row of a table, failing on the first row that does not match the schema.
+     *
+     * @param rows The rows keyed by header
+     * @return The bound records, in row order
+     * @throws RecordBindingException if any row cannot be bound, naming the row index
+     */
+    public List<R> bindAll(List<? extends Map<String, ?>> rows) {
+        List<R> records = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                records.add(bind(rows.get(i)));
+            } catch (RecordBindingException error) {
+                throw new RecordBindingException("Row " + i + ": " + error.getMessage(), error);
+            }
+        }
+        return List.copyOf(records);
+    }
+
+    private Object convert(int index, Object value) {
+        if (value == null) {
+            if (primitives[index]) {
+                throw new RecordBindingException(String.format("Column '%s' is empty but %s requires a value",
+                        columns[index], recordType.getSimpleName()));
+            }
+            return null;
+        }
+
+        try {
+            return converters[index].apply(value);
+        } catch (RuntimeException error) {
+            throw new RecordBindingException(String.format("Column '%s' value '%s' cannot be bound: %s",
+                    columns[index], value, error.getMessage()), error);
+        }
+    }
+
+    private static MethodHandle spreadingConstructor(Class<?> recordType, Class<?>[] parameterTypes) {
+        try {
+            Constructor<?> canonicalConstructor = recordType.getDeclaredConstructor(parameterTypes);
+            canonicalConstructor.setAccessible(true);
+            return MethodHandles.lookup()
+                    .unreflectConstructor(canonicalConstructor)
+                    .asType(MethodType.genericMethodType(parameterTypes.length))
+                    .asSpreader(Object[].class, parameterTypes.length);
+        } catch (ReflectiveOperationException error) {
+            ErrorHandler.logError(error, "spreadingConstructor", "Failed to resolve canonical constructor");
+            throw new RecordBindingException("Failed to resolve canonical constructor of " + recordType.getName(), error);
+        }
+    }
+
+    private static Function<Object, Object> converterFor(Class<?> type, Class<?> recordType, String componentName) {
+        if (type == String.class) {
+            return RecordBinder::toText;
+        } else if (type == int.class || type == Integer.class) {
+            return value -> value instanceof Number number ? toInt(number) : Integer.parseInt(value.toString().trim());
+        } else if (type == long.class || type == Long.class) {
+            return value -> value instanceof Number number ? toLong(number) : Long.parseLong(value.toString().trim());
+        } else if (type == double.class || type == Double.class) {
+            return value -> value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString().trim());
+        } else if (type == boolean.class || type == Boolean.class) {
+            return RecordBinder::toBoolean;
+        } else if (type == LocalDate.class) {
+            return value -> value instanceof Date date
+                    ? date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate()
+                    : LocalDate.parse(value.toString().trim());
+        } else if (type.isPrimitive()) {
+            throw new RecordBindingException(String.format("Unsupported type %s for %s.%s",
+                    type.getName(), recordType.getSimpleName(), componentName));
+        }
+        return type::cast;
+    }
+
+    private static int toInt(Number number) {
+        long value = toLong(number);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("out of int range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Converts a number to a long only if no digits are lost, so 12.7 is rejected rather than bound as 12.
+     */
+    private static long toLong(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            return number.longValue();
+        }
+        BigDecimal decimal;
+        try {
+            decimal = new BigDecimal(number.toString());
+        } catch (NumberFormatException error) {
+            throw new IllegalArgumentException("not a number");
+        }
+        if (decimal.stripTrailingZeros().scale() > 0) {
+            throw new IllegalArgumentException("not a whole number");
+        }
+        try {
+            return decimal.longValueExact();
+        } catch (ArithmeticException error) {
+            throw new IllegalArgumentException("out of long range");
+        }
+    }
+
+    /**
+     * Accepts text, and whole numbers such as a numeric ID cell. Anything else, e.g. a date, a fraction or
+     * a JSON object, would only bind as its toString form, so the component has to declare that type instead.
+     */
+    private static String toText(Object value) {
+        if (value instanceof String text) {
+            return text;
+        } else if (value instanceof Number number) {
+            return Long.toString(toLong(number));
+        }
+        throw new IllegalArgumentException("a " + value.getClass().getSimpleName() + " is not text");
+    }
+
+    private static Object toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return value;
+        }
+        String text = value.toString().trim();
+        if (text.equalsIgnoreCase("true")) {
+            return true;
+        } else if (text.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("not a boolean");
+    }
+
+    private static String normalize(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char character = name.charAt(i);
+            if (character != ' ' && character != '_' && character != '-') {
+                key.append(Character.toLowerCase(character));
+            }
+        }
+        return key.toString();
+    }
+}
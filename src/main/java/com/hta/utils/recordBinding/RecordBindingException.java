@@ -0,0 +1,12 @@
+package com.hta.utils.recordBinding;
+
+public class RecordBindingException extends RuntimeException {
+
+    public RecordBindingException(String message) {
+        super(message);
+    }
+
+    public RecordBindingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.hta.utils.syntheticData;
+
+/**
+ * A generated value together with the seed it was generated from. Passing the seed back to
+ * {@link SyntheticDataPool#regenerate(long)} reproduces the value exactly.
+ *
+ * @param seed  the seed of the value
+ * @param value the generated value
+ */
+public record Seeded<T>(long seed, T value) {
+
+    @Override
+    public String toString() {
+        return value + " [seed=" + seed + "]";
+    }
+}
@@ -0,0 +1,189 @@
+package com.hta.utils.syntheticData;
+
+import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import net.datafaker.Faker;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * A pool of synthetic values that a background thread keeps topped up, so that data-driven tests
+ * draw ready-made values instead of waiting on Datafaker.
+ * <p>
+ * Every value is generated from its own seed, derived from the pool's base seed and a sequence
+ * number. Each thread has its own {@link Faker}, which is reseeded before every value, so a value
+ * depends only on its seed and not on the thread that generated it or on what was generated before.
+ * The seed travels with the value in a {@link Seeded}, and {@link #regenerate(long)} rebuilds the
+ * exact value of a failing row from it.
+ * <p>
+ * Consumers take values from a lock-free queue. When the queue runs dry the value is generated on the
+ * calling thread instead, so a consumer never blocks; such misses are counted in the statistics.
+ */
+public final class SyntheticDataPool<T> implements AutoCloseable {
+
+    private static final Logger logger = LoggerUtils.getLogger(SyntheticDataPool.class);
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // Weyl sequence increment of SplitMix64, spreads consecutive sequence numbers over the seed space
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final ThreadLocal<SeededFaker> fakers = ThreadLocal.withInitial(SeededFaker::create);
+
+    private final String name;
+    private final long baseSeed;
+    private final int capacity;
+    private final Function<Faker, T> generator;
+
+    private final Queue<Seeded<T>> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder drawn = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Thread producer;
+    private volatile boolean closed;
+
+    /**
+     * Per-thread Faker together with the Random it draws from, so it can be reseeded per value.
+     */
+    private record SeededFaker(Random random, Faker faker) {
+
+        private static SeededFaker create() {
+            Random random = new Random();
+            return new SeededFaker(random, new Faker(Locale.ENGLISH, random));
+        }
+    }
+
+    /**
+     * Pool usage counters.
+     *
+     * @param produced values generated by the background producer
+     * @param drawn    values handed out by {@link #next()}
+     * @param misses   values generated on the consumer thread because the pool was empty
+     * @param pooled   values currently waiting in the pool
+     */
+    public record Statistics(long produced, long drawn, long misses, int pooled) {
+    }
+
+    /**
+     * Creates the pool and starts filling it in the background.
+     *
+     * @param name      the name of the pool, used for the producer thread and in logs
+     * @param baseSeed  the seed all value seeds are derived from
+     * @param capacity  the number of values to keep ready
+     * @param generator builds one value from a seeded Faker; must draw all randomness from the Faker
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public SyntheticDataPool(String name, long baseSeed, int capacity, Function<Faker, T> generator) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool capacity must be positive: " + capacity);
+        }
+        this.name = name;
+        this.baseSeed = baseSeed;
+        this.capacity = capacity;
+        this.generator = generator;
+        this.producer = Thread.ofPlatform().daemon().name("synthetic-data-" + name).unstarted(this::produce);
+        this.producer.start();
+        logger.info("Started synthetic data pool '{}' with base seed {} and capacity {}", name, baseSeed, capacity);
+    }
+
+    /**
+     * Takes the next value from the pool, generating it on the calling thread if the pool is empty.
+     *
+     * @return the value and the seed it was generated from
+     */
+    public Seeded<T> next() {
+        Seeded<T> value = pool.poll();
+        if (value == null) {
+            misses.increment();
+            value = generate(nextSeed());
+        } else if (pooled.decrementAndGet() <= capacity / 2) {
+            LockSupport.unpark(producer);
+        }
+        drawn.increment();
+        return value;
+    }
+
+    /**
+     * Generates the value of the given seed again, for reproducing a failing row.
+     *
+     * @param seed the seed reported with the original value
+     * @return the same value the seed produced originally
+     */
+    public Seeded<T> regenerate(long seed) {
+        return generate(seed);
+    }
+
+    public long baseSeed() {
+        return baseSeed;
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(produced.sum(), drawn.sum(), misses.sum(), pooled.get());
+    }
+
+    public void logStatistics() {
+        Statistics statistics = getStatistics();
+        logger.info("Synthetic data pool '{}' (base seed {}): {} drawn, {} produced in the background, {} generated inline",
+                name, baseSeed, statistics.drawn(), statistics.produced(), statistics.misses());
+    }
+
+    /**
+     * Stops the background producer. Values already pooled can still be drawn, and later draws
+     * are generated on the calling thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(producer);
+    }
+
+    private void produce() {
+        while (!closed) {
+            if (pooled.get() >= capacity) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                pool.offer(generate(nextSeed()));
+                pooled.incrementAndGet();
+                produced.increment();
+            } catch (RuntimeException error) {
+                // Leave generation to the consumers, who will then see the failure themselves
+                ErrorHandler.logError(error, "produce", "Stopped producing synthetic data for pool: " + name);
+                closed = true;
+            }
+        }
+    }
+
+    private long nextSeed() {
+        return mix(baseSeed + sequence.getAndIncrement() * GOLDEN_GAMMA);
+    }
+
+    /**
+     * SplitMix64 finalizer, so that neighbouring sequence numbers give unrelated seeds.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private Seeded<T> generate(long seed) {
+        SeededFaker seededFaker = fakers.get();
+        seededFaker.random().setSeed(seed);
+        return new Seeded<>(seed, generator.apply(seededFaker.faker()));
+    }
+}
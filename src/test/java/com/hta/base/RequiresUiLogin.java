@@ -0,0 +1,15 @@
+package com.hta.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that must log in through the login form when it calls {@link TestBase#ensureLoggedIn()},
+ * rather than having a saved session restored into its browser.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RequiresUiLogin {
+}
@@ -6,23 +6,36 @@ import com.hta.config.paths.JsonDataFilePaths;
 import com.hta.config.properties.PropertiesConfigManager;
 import com.hta.config.properties.PropertiesFileAlias;
 import com.hta.crypto.services.CryptoOperationsManager;
+import com.hta.dataProviders.synthetic.SyntheticTestData;
+import com.hta.drivers.AuthenticatedSessionCache;
 import com.hta.drivers.BrowserFactory;
+import com.hta.drivers.BrowserOptionsUtils;
+import com.hta.drivers.BrowserProfile;
 import com.hta.drivers.DriverFactory;
 import com.hta.testDataStorage.TestContextIds;
 import com.hta.ui.pages.hotelPages.LoginPage;
 import com.hta.ui.pages.hotelPages.SearchHotelPage;
 import com.hta.ui.pages.hotelPages.SelectHotelPage;
 import com.hta.ui.pages.hotelPages.TopNavigationPage;
+import com.hta.utils.StringInterner;
 import com.hta.utils.jacksonUtils.JsonDataReader;
+import com.hta.utils.jacksonUtils.JsonFixtureRegistry;
 import com.hta.utils.logging.ErrorHandler;
 import com.hta.utils.logging.LoggerUtils;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.hta.base.TestConfigInitializer.*;
 
@@ -40,6 +53,9 @@ public class TestBase extends BasePage {
     // Test Data Ids
     private static final TestContextIds BOOKING_ID_ONE = TestContextIds.BOOKING_TEST_ID_ONE;
 
+    // Tests whose registered browser was never started
+    private static final Set<String> browserlessTests = ConcurrentHashMap.newKeySet();
+
     // Get Driver Instance
     private final DriverFactory driverFactory = DriverFactory.getInstance();
     protected BrowserFactory browserFactory;
@@ -83,18 +99,40 @@ public class TestBase extends BasePage {
     }
 
     @AfterMethod(alwaysRun = true)
-    public void tearDown() {
+    public void tearDown(ITestResult result) {
         try {
+            // A retried attempt runs again, and @BeforeMethod registers a fresh supplier for it,
+            // so only the final attempt of a test is reported as not needing a browser
+            if (driverFactory.cancelDriverSupplier(result.wasRetried()) && !result.wasRetried()) {
+                browserlessTests.add(result.getMethod().getQualifiedName());
+            }
             cleanUpTestContexts(BOOKING_ID_ONE);
             logger.info("Test tear-down completed successfully.");
         } catch (Exception error) {
             ErrorHandler.logError(error, "tearDown", "Failed to tear down");
             throw error;
         } finally {
-            driverFactory.quitDriver();
+            // A session that failed with a browser error is not trusted for the next test
+            if (result.getThrowable() instanceof WebDriverException) {
+                driverFactory.quitDriver();
+            } else {
+                driverFactory.releaseDriver();
+            }
         }
     }
 
+    @AfterSuite(alwaysRun = true)
+    public void globalTearDown() {
+        if (!browserlessTests.isEmpty()) {
+            logger.info("{} test(s) never needed a browser: {}", browserlessTests.size(), new TreeSet<>(browserlessTests));
+        }
+        driverFactory.shutdownIdleSessions();
+        AuthenticatedSessionCache.getInstance().logStatistics();
+        StringInterner.logStatistics();
+        JsonFixtureRegistry.logStatistics();
+        SyntheticTestData.logStatistics();
+    }
+
     private void initializeJsonReaders() {
         bookingDataReader = createJsonReader(JsonDataFilePaths.BOOKING);
         paymentDataReader = createJsonReader(JsonDataFilePaths.PAYMENTS);
@@ -102,7 +140,7 @@ public class TestBase extends BasePage {
 
     private void skipBrowserInitializationIfNeeded() {
         if (!Boolean.getBoolean("skipBrowserInitialization")) {
-            initializeBrowserComponents();
+            registerBrowserComponents();
         } else {
             logger.info("Skipping browser initialization for encryption tests.");
         }
@@ -117,9 +155,18 @@ public class TestBase extends BasePage {
 //        bookingConfirmationPage = new BookingConfirmationPage(driver);
     }
 
-    private void initializeBrowserComponents() {
+    /**
+     * Builds the pages over a lazy driver and registers the browser startup, so the browser is only
+     * started when the test first talks to it and tests that never do cost no startup at all.
+     */
+    private void registerBrowserComponents() {
+        browserFactory = new BrowserFactory();
+        initializePages(driverFactory.getLazyDriver());
+        driverFactory.registerDriverSupplier(this::initializeBrowserComponents);
+    }
+
+    private WebDriver initializeBrowserComponents() {
         try {
-            browserFactory = new BrowserFactory();
 
             String browser = PropertiesConfigManager.getPropertyKeyFromCache(
                     PropertiesFileAlias.GLOBAL.getConfigurationAlias(),
@@ -133,12 +180,11 @@ public class TestBase extends BasePage {
                 throw new IllegalStateException(errorMessage);
             }
 
-            initializePages(driverFactory.getDriver());
-
             String url = PropertiesConfigManager.getPropertyKeyFromCache(PropertiesFileAlias.UAT.getConfigurationAlias(), URL);
 
             driverFactory.navigateToUrl(url);
             validateLoginPage();
+            return driverFactory.getDriver();
         } catch (Exception error) {
             ErrorHandler.logError(error, "initializeBrowserComponents", "Failed to initialize browser components");
             throw error;
@@ -146,10 +192,35 @@ public class TestBase extends BasePage {
     }
 
     private void validateLoginPage() {
+        BrowserProfile profile = BrowserOptionsUtils.getBrowserProfile();
+        if (!profile.loadsImages()) {
+            // Both checks wait for an <img> to become visible, and its image is never loaded when images are blocked
+            logger.info("Browser profile '{}' blocks images, skipping the hero image and company logo checks",
+                    profile.getProfileName());
+            return;
+        }
         loginPage.validateHeroImageLoadTime();
         loginPage.isCompanyLogoPresent();
     }
 
+    /**
+     * Logs the current browser in to the portal. After the first login of a thread, the saved session is
+     * restored instead of going through the login form, unless the test is marked {@link RequiresUiLogin}.
+     */
+    protected void ensureLoggedIn() {
+        AuthenticatedSessionCache.getInstance().logIn(driverFactory.getDriver(), requiresUiLogin(), () -> {
+            List<String> credentials = decryptCredentials();
+            loginPage.loginToPortal(credentials.get(0), credentials.get(1));
+            loginPage.verifyLoginErrorMessageNotVisible();
+        });
+    }
+
+    private static boolean requiresUiLogin() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        return result != null && result.getMethod().getConstructorOrMethod().getMethod()
+                .isAnnotationPresent(RequiresUiLogin.class);
+    }
+
     public List<String> decryptCredentials() {
         try {
             return CryptoOperationsManager.decryptEnvironmentVariables(
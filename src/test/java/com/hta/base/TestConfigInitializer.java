@@ -9,12 +9,13 @@ import com.hta.config.properties.PropertiesFileAlias;
 import com.hta.config.properties.PropertiesFilePaths;
 import com.hta.testDataStorage.TestContextIds;
 import com.hta.testDataStorage.TestContextStore;
-import com.hta.utils.jacksonUtils.JsonConverter;
 import com.hta.utils.jacksonUtils.JsonDataReader;
 import com.hta.utils.logging.ErrorHandler;
 import com.hta.utils.logging.LoggerUtils;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
@@ -25,6 +26,9 @@ public class TestConfigInitializer {
 
     private static final Logger logger = LoggerUtils.getLogger(TestConfigInitializer.class);
 
+    private static final String JSON_STREAMING_THRESHOLD_MB = "JSON_STREAMING_THRESHOLD_MB";
+    private static final int DEFAULT_JSON_STREAMING_THRESHOLD_MB = 10;
+
     /**
      * Initializes both property and environment configurations.
      * This method loads configurations from files and handles any exceptions that occur during the process.
@@ -111,15 +115,11 @@ public class TestConfigInitializer {
 
     /**
      * Initializes test contexts for the provided test context IDs.
-     * It also initializes the JSON mapper used for serialization and deserialization.
      *
      * @param testContextIds Varargs of TestContextIds to initialize.
      */
     public static void initializeTestContexts(TestContextIds... testContextIds) {
         try {
-            // Initialize JSON Mapper
-            JsonConverter.initJsonMapper();
-
             // Initialize test contexts
             for (TestContextIds testContextId : testContextIds) {
                 TestContextStore.initializeContext(testContextId.getTestId());
@@ -147,7 +147,28 @@ public class TestConfigInitializer {
         }
     }
 
+    /**
+     * Creates a reader for a JSON fixture. Fixtures larger than JSON_STREAMING_THRESHOLD_MB are read
+     * through a streaming section index instead of being parsed into one tree.
+     *
+     * @param filePath The fixture to read.
+     * @return A reader for the fixture.
+     */
     public static JsonDataReader createJsonReader(JsonDataFilePaths filePath) {
-        return new JsonDataReader(filePath.getFullPath());
+        try {
+            String fullPath = filePath.getFullPath();
+            long thresholdBytes = PropertiesConfigManager.getPropertyKeyFromCache(
+                    PropertiesFileAlias.GLOBAL.getConfigurationAlias(), JSON_STREAMING_THRESHOLD_MB, Integer.class)
+                    .orElse(DEFAULT_JSON_STREAMING_THRESHOLD_MB) * 1024L * 1024L;
+
+            if (Files.size(Paths.get(fullPath)) > thresholdBytes) {
+                logger.info("Reading large JSON fixture '{}' in streaming mode", fullPath);
+                return JsonDataReader.streaming(fullPath);
+            }
+            return new JsonDataReader(fullPath);
+        } catch (IOException error) {
+            ErrorHandler.logError(error, "createJsonReader", "Failed to read JSON fixture: " + filePath.getFullPath());
+            throw new UncheckedIOException(error);
+        }
     }
 }
\ No newline at end of file
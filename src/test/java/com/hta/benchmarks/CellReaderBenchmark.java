@@ -0,0 +1,137 @@
+package com.hta.benchmarks;
+
+import com.hta.utils.excelUtils.CellReader;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the typed cell decoding in {@link CellReader} against the original
+ * string round-trip (format, regex, BigDecimal) it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellReaderBenchmark {
+
+    // Run from the terminal: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.hta.benchmarks.CellReaderBenchmark
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CellReaderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private static final int CELL_COUNT = 1_000;
+
+    private Workbook workbook;
+    private Cell[] integerCells;
+    private Cell[] decimalCells;
+    private Cell[] dateCells;
+
+    @Setup
+    public void setUp() {
+        workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("Benchmark");
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+        integerCells = new Cell[CELL_COUNT];
+        decimalCells = new Cell[CELL_COUNT];
+        dateCells = new Cell[CELL_COUNT];
+
+        for (int i = 0; i < CELL_COUNT; i++) {
+            Row row = sheet.createRow(i);
+            integerCells[i] = row.createCell(0);
+            integerCells[i].setCellValue(2025 + i);
+            decimalCells[i] = row.createCell(1);
+            decimalCells[i].setCellValue(i + 0.25);
+            dateCells[i] = row.createCell(2);
+            dateCells[i].setCellValue(LocalDate.of(2025, 1, 1).plusDays(i));
+            dateCells[i].setCellStyle(dateStyle);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public void typedInteger(Blackhole blackhole) {
+        for (Cell cell : integerCells) {
+            blackhole.consume(CellReader.getCellValueAsInt(cell, 0));
+        }
+    }
+
+    @Benchmark
+    public void legacyInteger(Blackhole blackhole) {
+        for (Cell cell : integerCells) {
+            blackhole.consume(legacyGetCellValueAsInteger(cell));
+        }
+    }
+
+    @Benchmark
+    public void typedDouble(Blackhole blackhole) {
+        for (Cell cell : decimalCells) {
+            blackhole.consume(CellReader.getCellValueAsDouble(cell, 0d));
+        }
+    }
+
+    @Benchmark
+    public void legacyDouble(Blackhole blackhole) {
+        for (Cell cell : decimalCells) {
+            blackhole.consume(legacyGetCellValueAsDouble(cell));
+        }
+    }
+
+    @Benchmark
+    public void typedDateString(Blackhole blackhole) {
+        for (Cell cell : dateCells) {
+            blackhole.consume(CellReader.getCellValueAsString(cell));
+        }
+    }
+
+    @Benchmark
+    public void legacyDateString(Blackhole blackhole) {
+        for (Cell cell : dateCells) {
+            blackhole.consume(new SimpleDateFormat("yyyy-MM-dd").format(cell.getDateCellValue()));
+        }
+    }
+
+    private static Integer legacyGetCellValueAsInteger(Cell cell) {
+        String stringValue = legacyFormatNumericCell(cell);
+        return stringValue.isEmpty() ? null : new BigDecimal(stringValue.replaceAll("\\.0+$", "")).intValue();
+    }
+
+    private static Double legacyGetCellValueAsDouble(Cell cell) {
+        String stringValue = legacyFormatNumericCell(cell);
+        return stringValue.isEmpty() ? null : new BigDecimal(stringValue.replaceAll(",", "").trim()).doubleValue();
+    }
+
+    private static String legacyFormatNumericCell(Cell cell) {
+        if (DateUtil.isCellDateFormatted(cell)) {
+            return new SimpleDateFormat("yyyy-MM-dd").format(cell.getDateCellValue());
+        }
+        double value = cell.getNumericCellValue();
+        if (Math.abs(value) > 1e15) {
+            return new BigDecimal(value).toPlainString();
+        }
+        return (value == Math.floor(value) && !Double.isInfinite(value)) ?
+                Long.toString((long) value) : String.valueOf(value);
+    }
+}
@@ -0,0 +1,132 @@
+package com.hta.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hta.utils.jacksonUtils.JsonConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the serialization paths of {@link JsonConverter}: the generic mapper call it used to make,
+ * the cached type-specialized reader and writer, and the same with the Blackbird module registered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonConverterBenchmark {
+
+    // Run from the terminal: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.hta.benchmarks.JsonConverterBenchmark
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JsonConverterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * A typical booking payload with a mix of strings, numbers and dates.
+     */
+    public static class Booking {
+        private String location;
+        private String hotel;
+        private String roomType;
+        private int numberOfRooms;
+        private int adultsPerRoom;
+        private int childrenPerRoom;
+        private double totalPrice;
+        private LocalDate checkIn;
+        private LocalDate checkOut;
+
+        public String getLocation() { return location; }
+        public void setLocation(String location) { this.location = location; }
+        public String getHotel() { return hotel; }
+        public void setHotel(String hotel) { this.hotel = hotel; }
+        public String getRoomType() { return roomType; }
+        public void setRoomType(String roomType) { this.roomType = roomType; }
+        public int getNumberOfRooms() { return numberOfRooms; }
+        public void setNumberOfRooms(int numberOfRooms) { this.numberOfRooms = numberOfRooms; }
+        public int getAdultsPerRoom() { return adultsPerRoom; }
+        public void setAdultsPerRoom(int adultsPerRoom) { this.adultsPerRoom = adultsPerRoom; }
+        public int getChildrenPerRoom() { return childrenPerRoom; }
+        public void setChildrenPerRoom(int childrenPerRoom) { this.childrenPerRoom = childrenPerRoom; }
+        public double getTotalPrice() { return totalPrice; }
+        public void setTotalPrice(double totalPrice) { this.totalPrice = totalPrice; }
+        public LocalDate getCheckIn() { return checkIn; }
+        public void setCheckIn(LocalDate checkIn) { this.checkIn = checkIn; }
+        public LocalDate getCheckOut() { return checkOut; }
+        public void setCheckOut(LocalDate checkOut) { this.checkOut = checkOut; }
+    }
+
+    private Booking booking;
+    private String bookingJson;
+
+    private ObjectMapper reflectionMapper;
+    private ObjectWriter reflectionWriter;
+    private ObjectReader reflectionReader;
+    private ObjectWriter blackbirdWriter;
+    private ObjectReader blackbirdReader;
+
+    @Setup
+    public void setUp() throws Exception {
+        booking = new Booking();
+        booking.setLocation("Sydney");
+        booking.setHotel("Hotel Creek");
+        booking.setRoomType("Deluxe");
+        booking.setNumberOfRooms(2);
+        booking.setAdultsPerRoom(2);
+        booking.setChildrenPerRoom(1);
+        booking.setTotalPrice(1250.50);
+        booking.setCheckIn(LocalDate.of(2025, 3, 1));
+        booking.setCheckOut(LocalDate.of(2025, 3, 5));
+
+        reflectionMapper = JsonConverter.createJsonMapper(false);
+        reflectionWriter = reflectionMapper.writerFor(Booking.class);
+        reflectionReader = reflectionMapper.readerFor(Booking.class);
+
+        ObjectMapper blackbirdMapper = JsonConverter.createJsonMapper(true);
+        blackbirdWriter = blackbirdMapper.writerFor(Booking.class);
+        blackbirdReader = blackbirdMapper.readerFor(Booking.class);
+
+        bookingJson = reflectionWriter.writeValueAsString(booking);
+    }
+
+    @Benchmark
+    public String serializeWithMapper() throws Exception {
+        return reflectionMapper.writeValueAsString(booking);
+    }
+
+    @Benchmark
+    public String serializeWithCachedWriter() throws Exception {
+        return reflectionWriter.writeValueAsString(booking);
+    }
+
+    @Benchmark
+    public String serializeWithBlackbird() throws Exception {
+        return blackbirdWriter.writeValueAsString(booking);
+    }
+
+    @Benchmark
+    public Booking deserializeWithMapper() throws Exception {
+        return reflectionMapper.readValue(bookingJson, Booking.class);
+    }
+
+    @Benchmark
+    public Booking deserializeWithCachedReader() throws Exception {
+        return reflectionReader.readValue(bookingJson);
+    }
+
+    @Benchmark
+    public Booking deserializeWithBlackbird() throws Exception {
+        return blackbirdReader.readValue(bookingJson);
+    }
+}
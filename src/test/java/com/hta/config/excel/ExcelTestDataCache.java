@@ -1,15 +1,35 @@
 package com.hta.config.excel;
 
+import com.hta.utils.excelUtils.ColumnarWorkbookFile;
 import com.hta.utils.excelUtils.ExcelConfigManager;
+import com.hta.utils.excelUtils.SheetData;
+import com.hta.utils.excelUtils.WorkbookFingerprint;
 import com.hta.utils.logging.ErrorHandler;
+import com.hta.utils.logging.LoggerUtils;
+import com.hta.utils.recordBinding.RecordBinder;
+import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class ExcelTestDataCache {
 
-    private static final Map<String, Object[][]> TEST_DATA_CACHE = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerUtils.getLogger(ExcelTestDataCache.class);
+    private static final Map<String, CachedSheet> TEST_DATA_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * A cached sheet: its header row, the rows in data provider shape, the fingerprint of the
+     * workbook it was loaded from and the records bound from it so far. Records live on the entry
+     * so that swapping in a refreshed sheet also drops the records bound from the old one.
+     */
+    private record CachedSheet(List<String> headers, Object[][] data, WorkbookFingerprint fingerprint,
+                               Map<Class<?>, List<? extends Record>> records) {
+    }
 
     /**
      * Retrieves test data from the cache or loads it from the Excel file if not cached.
@@ -60,10 +80,64 @@ public class ExcelTestDataCache {
         }
     }
 
+    /**
+     * Retrieves the rows of a sheet bound to a record type.
+     * The header-to-constructor binding is compiled once per sheet and record type, and every row
+     * is bound when the sheet is first requested, so schema mismatches fail here rather than in a test.
+     *
+     * @param filePath   Path to the Excel file
+     * @param sheetName  Name of the sheet to read from
+     * @param recordType The record class each row is bound to
+     * @param <R>        The record type
+     * @return Immutable list of bound records, in row order
+     */
+    public static <R extends Record> List<R> getRecords(String filePath, String sheetName, Class<R> recordType) {
+        try {
+            CachedSheet sheet = getCachedSheet(filePath, sheetName);
+            @SuppressWarnings("unchecked")
+            List<R> records = (List<R>) sheet.records().computeIfAbsent(recordType,
+                    type -> bindRecords(sheet, recordType));
+            return records;
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "getRecords", "Failed to bind test data from file: " + filePath);
+            throw new RuntimeException("Failed to bind test data", error);
+        }
+    }
+
+    /**
+     * Loads several sheets of the same workbook into the cache in a single pass.
+     * The workbook is opened once and the sheets that are not cached yet are read from it together.
+     * If no sheet names are given, every sheet in the workbook is loaded.
+     *
+     * @param filePath   Path to the Excel file
+     * @param sheetNames Names of the sheets to load
+     */
+    public static void loadWorkbook(String filePath, String... sheetNames) {
+        try {
+            String[] sheetsToLoad = Arrays.stream(sheetNames)
+                    .filter(sheetName -> !TEST_DATA_CACHE.containsKey(generateCacheKey(filePath, sheetName)))
+                    .toArray(String[]::new);
+
+            if (sheetNames.length > 0 && sheetsToLoad.length == 0) {
+                return;
+            }
+
+            loadSheets(filePath, sheetsToLoad).forEach((sheetName, sheet) ->
+                    TEST_DATA_CACHE.putIfAbsent(generateCacheKey(filePath, sheetName), sheet));
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "loadWorkbook", "Failed to load workbook from file: " + filePath);
+            throw new RuntimeException("Failed to load workbook", error);
+        }
+    }
+
     /**
      * Loads test data from cache or fetches from file if not cached.
      */
     private static Object[][] getCachedData(String filePath, String sheetName) {
+        return getCachedSheet(filePath, sheetName).data();
+    }
+
+    private static CachedSheet getCachedSheet(String filePath, String sheetName) {
         try {
             String cacheKey = generateCacheKey(filePath, sheetName);
             return TEST_DATA_CACHE.computeIfAbsent(cacheKey, key -> loadTestData(filePath, sheetName));
@@ -76,16 +150,64 @@ public class ExcelTestDataCache {
     /**
      * Loads test data from the Excel file.
      */
-    private static Object[][] loadTestData(String filePath, String sheetName) {
+    private static CachedSheet loadTestData(String filePath, String sheetName) {
         try {
-            List<Map<String, Object>> testData = ExcelConfigManager.loadExcelDataAsList(filePath, sheetName);
-            return testData.stream().map(data -> new Object[]{data}).toArray(Object[][]::new);
+            return loadSheets(filePath, sheetName).get(sheetName);
         } catch (Exception error) {
             ErrorHandler.logError(error, "loadTestData", "Failed to load test data from file: " + filePath);
             throw new RuntimeException("Failed to load test data", error);
         }
     }
 
+    /**
+     * Loads sheets from the columnar copy of the workbook when one is present and current,
+     * which avoids starting POI at all, and from the workbook itself otherwise.
+     */
+    private static Map<String, CachedSheet> loadSheets(String filePath, String... sheetNames) {
+        Map<String, CachedSheet> sheets = new LinkedHashMap<>();
+
+        Optional<ColumnarWorkbookFile> columnarFile = ColumnarWorkbookFile.openIfCurrent(filePath);
+        if (columnarFile.isPresent()) {
+            long startTime = System.nanoTime();
+            ColumnarWorkbookFile workbook = columnarFile.get();
+            List<String> sheetsToLoad = sheetNames.length == 0 ? workbook.sheetNames() : List.of(sheetNames);
+            for (String sheetName : sheetsToLoad) {
+                sheets.put(sheetName, toCachedSheet(workbook.readSheet(sheetName), workbook.fingerprint()));
+            }
+            logger.info("Loaded {} sheet(s) of '{}' from columnar copy in {} µs", sheets.size(), filePath,
+                    (System.nanoTime() - startTime) / 1_000);
+            return sheets;
+        }
+
+        WorkbookFingerprint fingerprint = WorkbookFingerprint.capture(filePath);
+        ExcelConfigManager.loadWorkbookSheets(filePath, sheetNames).forEach((sheetName, sheetData) ->
+                sheets.put(sheetName, toCachedSheet(sheetData, fingerprint)));
+        return sheets;
+    }
+
+    /**
+     * Converts loaded sheet data into a cache entry, wrapping each row map in its own array,
+     * the shape expected by data providers.
+     */
+    private static CachedSheet toCachedSheet(SheetData sheetData, WorkbookFingerprint fingerprint) {
+        Object[][] data = sheetData.rows().stream().map(row -> new Object[]{row}).toArray(Object[][]::new);
+        return new CachedSheet(sheetData.headers(), data, fingerprint, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Compiles a binder for the sheet headers and binds every cached row.
+     */
+    @SuppressWarnings("unchecked")
+    private static <R extends Record> List<R> bindRecords(CachedSheet sheet, Class<R> recordType) {
+        RecordBinder<R> binder = RecordBinder.compile(recordType, sheet.headers());
+
+        List<Map<String, Object>> rows = new ArrayList<>(sheet.data().length);
+        for (Object[] row : sheet.data()) {
+            rows.add((Map<String, Object>) row[0]);
+        }
+        return binder.bindAll(rows);
+    }
+
     /**
      * Generates a unique cache key.
      */
@@ -107,14 +229,81 @@ public class ExcelTestDataCache {
         }
     }
 
+    /**
+     * Refreshes a cached sheet if its content changed on disk.
+     * The sheet is only re-parsed when the workbook's modification time or size changed and its
+     * worksheet part (or the shared strings and styles) has a different checksum. A sheet that
+     * is not cached yet is loaded.
+     *
+     * @param filePath  Path to the Excel file
+     * @param sheetName Name of the sheet to refresh
+     */
     public static void refreshCache(String filePath, String sheetName) {
         try {
-            String cacheKey = generateCacheKey(filePath, sheetName);
-            TEST_DATA_CACHE.remove(cacheKey);
-            getCachedData(filePath, sheetName); // Reload the data
+            if (!TEST_DATA_CACHE.containsKey(generateCacheKey(filePath, sheetName))) {
+                getCachedData(filePath, sheetName);
+                return;
+            }
+            refreshSheets(filePath, List.of(sheetName));
         } catch (Exception error) {
             ErrorHandler.logError(error, "refreshCache", "Failed to refresh cache");
             throw new RuntimeException("Failed to refresh cache", error);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Refreshes every cached sheet of a workbook whose content changed on disk.
+     * Changed sheets are re-parsed together in one pass and each is swapped into the cache atomically,
+     * so readers see either the old or the new sheet, never a missing one.
+     *
+     * @param filePath Path to the Excel file
+     */
+    public static void refreshWorkbook(String filePath) {
+        try {
+            String keyPrefix = generateCacheKey(filePath, "");
+            List<String> cachedSheets = TEST_DATA_CACHE.keySet().stream()
+                    .filter(key -> key.startsWith(keyPrefix))
+                    .map(key -> key.substring(keyPrefix.length()))
+                    .toList();
+            refreshSheets(filePath, cachedSheets);
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "refreshWorkbook", "Failed to refresh workbook");
+            throw new RuntimeException("Failed to refresh workbook", error);
+        }
+    }
+
+    private static synchronized void refreshSheets(String filePath, List<String> sheetNames) {
+        List<String> candidates = sheetNames.stream()
+                .filter(sheetName -> {
+                    CachedSheet cached = TEST_DATA_CACHE.get(generateCacheKey(filePath, sheetName));
+                    return cached != null && !cached.fingerprint().matchesFileAttributes(filePath);
+                })
+                .toList();
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        WorkbookFingerprint current = WorkbookFingerprint.capture(filePath);
+        List<String> changedSheets = new ArrayList<>();
+        for (String sheetName : candidates) {
+            String cacheKey = generateCacheKey(filePath, sheetName);
+            CachedSheet cached = TEST_DATA_CACHE.get(cacheKey);
+            if (current.changedSheets(cached.fingerprint(), List.of(sheetName)).isEmpty()) {
+                // Content is identical (e.g. the file was only touched), keep the parsed data
+                TEST_DATA_CACHE.replace(cacheKey, cached, new CachedSheet(
+                        cached.headers(), cached.data(), current, cached.records()));
+            } else {
+                changedSheets.add(sheetName);
+            }
+        }
+
+        if (changedSheets.isEmpty()) {
+            logger.info("No sheet content changed in '{}'", filePath);
+            return;
+        }
+
+        loadSheets(filePath, changedSheets.toArray(String[]::new)).forEach((sheetName, sheet) ->
+                TEST_DATA_CACHE.put(generateCacheKey(filePath, sheetName), sheet));
+        logger.info("Refreshed changed sheet(s) {} of '{}'", changedSheets, filePath);
+    }
+}
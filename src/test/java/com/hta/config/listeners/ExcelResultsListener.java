@@ -0,0 +1,122 @@
+package com.hta.config.listeners;
+
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.utils.excelUtils.ExcelResultWriter;
+import com.hta.utils.excelUtils.RowResult;
+import com.hta.utils.logging.ErrorHandler;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.lang.reflect.RecordComponent;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exports the outcome of every data-driven test invocation to a results workbook.
+ * <p>
+ * Each test method gets its own sheet whose columns mirror the invocation parameters:
+ * the headers of a row map, the components of a record or Param1..n for plain values.
+ * Results are handed to an {@link ExcelResultWriter}, so test threads never wait on POI.
+ * The workbook is written to {@code <REPORT_DIR>/excel-results/<suite>-results.xlsx} when the suite finishes.
+ */
+public class ExcelResultsListener implements ITestListener, ISuiteListener {
+
+    private static final String REPORT_DIRECTORY = "REPORT_DIR";
+    private static final String ROW_WINDOW = "EXCEL_RESULTS_ROW_WINDOW";
+    private static final String RESULTS_DIRECTORY = "excel-results";
+
+    private String suiteName = "suite";
+    private ExcelResultWriter writer;
+
+    @Override
+    public void onStart(ISuite suite) {
+        suiteName = suite.getName().replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ExcelResultWriter finishedWriter;
+        synchronized (this) {
+            finishedWriter = writer;
+            writer = null;
+        }
+        if (finishedWriter != null) {
+            finishedWriter.close();
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, "PASSED");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, "FAILED");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // A retried attempt is reported as skipped; only its final attempt is exported
+        if (!result.wasRetried()) {
+            record(result, "SKIPPED");
+        }
+    }
+
+    private void record(ITestResult result, String status) {
+        Object[] parameters = result.getParameters();
+        if (parameters == null || parameters.length == 0) {
+            return;
+        }
+
+        try {
+            Throwable throwable = result.getThrowable();
+            getWriter().submit(new RowResult(
+                    result.getMethod().getQualifiedName(),
+                    toInputs(parameters),
+                    status,
+                    result.getEndMillis() - result.getStartMillis(),
+                    throwable != null ? String.valueOf(throwable.getMessage()) : null));
+        } catch (Exception error) {
+            // Reporting must never fail the test it reports on
+            ErrorHandler.logError(error, "record", "Failed to export result of: " + result.getName());
+        }
+    }
+
+    private synchronized ExcelResultWriter getWriter() {
+        if (writer == null) {
+            String reportDirectory = PropertiesConfigManager.getPropertyKeyFromCache(
+                    PropertiesFileAlias.GLOBAL.getConfigurationAlias(), REPORT_DIRECTORY);
+            int rowWindow = PropertiesConfigManager.getPropertyKeyFromCache(
+                    PropertiesFileAlias.GLOBAL.getConfigurationAlias(), ROW_WINDOW, Integer.class)
+                    .orElse(ExcelResultWriter.DEFAULT_ROW_WINDOW);
+            writer = new ExcelResultWriter(
+                    Path.of(reportDirectory, RESULTS_DIRECTORY, suiteName + "-results.xlsx"),
+                    rowWindow, ExcelResultWriter.DEFAULT_QUEUE_CAPACITY);
+        }
+        return writer;
+    }
+
+    /**
+     * Maps the invocation parameters to result columns, unpacking a single row map or record.
+     */
+    private static Map<String, Object> toInputs(Object[] parameters) throws ReflectiveOperationException {
+        Map<String, Object> inputs = new LinkedHashMap<>();
+        if (parameters.length == 1 && parameters[0] instanceof Map<?, ?> row) {
+            row.forEach((column, value) -> inputs.put(String.valueOf(column), value));
+        } else if (parameters.length == 1 && parameters[0] instanceof Record record) {
+            for (RecordComponent component : record.getClass().getRecordComponents()) {
+                inputs.put(component.getName(), component.getAccessor().invoke(record));
+            }
+        } else {
+            for (int i = 0; i < parameters.length; i++) {
+                inputs.put("Param" + (i + 1), parameters[i]);
+            }
+        }
+        return inputs;
+    }
+}
@@ -1,6 +1,9 @@
 package com.hta.dataProviders.excel;
 
+import com.hta.config.excel.ExcelTestDataCache;
 import com.hta.config.paths.ExcelDataFilePaths;
+import com.hta.dataProviders.records.BookingRow;
+import com.hta.dataProviders.records.PaymentRow;
 import org.testng.annotations.DataProvider;
 
 import java.util.Iterator;
@@ -11,6 +14,17 @@ public class BookingTestDataProvider {
     private static final String BOOKING_SHEET = "Booking";
     private static final String PAYMENTS_SHEETS = "Payments";
 
+    /**
+     * Loads both sheets of the booking workbook together the first time any provider needs one of them.
+     * Loading here rather than in a static initializer keeps a broken workbook a failure of the provider
+     * that ran, instead of an initialization error for every provider in the class.
+     *
+     * @return the path of the booking workbook
+     */
+    private static String bookingWorkbook() {
+        ExcelTestDataCache.loadWorkbook(BOOKING_DATA_PATH, BOOKING_SHEET, PAYMENTS_SHEETS);
+        return BOOKING_DATA_PATH;
+    }
 
     /**
      * Provides booking details test data.
@@ -19,10 +33,30 @@ public class BookingTestDataProvider {
      */
     @DataProvider(name = "BookingDetails")
     public static Iterator<Object[]> getBookingDetails() {
-        return ExcelTestDataProvider.getMultiColumnData(BOOKING_DATA_PATH, BOOKING_SHEET,
+        return ExcelTestDataProvider.getMultiColumnData(bookingWorkbook(), BOOKING_SHEET,
                 "Location", "Hotels", "RoomTypes");
     }
 
+    /**
+     * Provides every row of the booking sheet as a typed record.
+     *
+     * @return Iterator of objects containing a {@link BookingRow}
+     */
+    @DataProvider(name = "BookingRows")
+    public static Iterator<Object[]> getBookingRows() {
+        return ExcelTestDataProvider.getRecordData(bookingWorkbook(), BOOKING_SHEET, BookingRow.class);
+    }
+
+    /**
+     * Provides every row of the payments sheet as a typed record.
+     *
+     * @return Iterator of objects containing a {@link PaymentRow}
+     */
+    @DataProvider(name = "PaymentRows")
+    public static Iterator<Object[]> getPaymentRows() {
+        return ExcelTestDataProvider.getRecordData(bookingWorkbook(), PAYMENTS_SHEETS, PaymentRow.class);
+    }
+
     /**
      * Provides location test data.
      *
@@ -30,12 +64,12 @@ public class BookingTestDataProvider {
      */
     @DataProvider(name = "LocationData")
     public static Iterator<Object[]> getLocationData() {
-        return ExcelTestDataProvider.getColumnData(BOOKING_DATA_PATH, BOOKING_SHEET, "Location");
+        return ExcelTestDataProvider.getColumnData(bookingWorkbook(), BOOKING_SHEET, "Location");
     }
 
     @DataProvider(name = "HotelData")
     public static Iterator<Object[]> getHotelsData() {
-        return ExcelTestDataProvider.getColumnData(BOOKING_DATA_PATH, BOOKING_SHEET, "Hotels");
+        return ExcelTestDataProvider.getColumnData(bookingWorkbook(), BOOKING_SHEET, "Hotels");
     }
 
     /**
@@ -45,22 +79,22 @@ public class BookingTestDataProvider {
      */
     @DataProvider(name = "RoomTypeData")
     public static Iterator<Object[]> getRoomTypeData() {
-        return ExcelTestDataProvider.getColumnData(BOOKING_DATA_PATH, BOOKING_SHEET, "RoomTypes");
+        return ExcelTestDataProvider.getColumnData(bookingWorkbook(), BOOKING_SHEET, "RoomTypes");
     }
 
     @DataProvider(name = "NumberOfRoomsData")
     public static Iterator<Object[]> getNumberOfRoomsData() {
-        return ExcelTestDataProvider.getColumnData(BOOKING_DATA_PATH, BOOKING_SHEET, "NumberOfRooms");
+        return ExcelTestDataProvider.getColumnData(bookingWorkbook(), BOOKING_SHEET, "NumberOfRooms");
     }
 
     @DataProvider(name = "AdultsPerRoomData")
     public static Iterator<Object[]> getAdultsPerRoomData() {
-        return ExcelTestDataProvider.getColumnData(BOOKING_DATA_PATH, BOOKING_SHEET, "ChildrenPerRoom");
+        return ExcelTestDataProvider.getColumnData(bookingWorkbook(), BOOKING_SHEET, "ChildrenPerRoom");
     }
 
     @DataProvider(name = "ChildrenPerRoomData")
     public static Iterator<Object[]> getChildrenPerRoomData() {
-        return ExcelTestDataProvider.getColumnData(BOOKING_DATA_PATH, BOOKING_SHEET, "ChildrenPerRoom");
+        return ExcelTestDataProvider.getColumnData(bookingWorkbook(), BOOKING_SHEET, "ChildrenPerRoom");
     }
 
 
@@ -71,7 +105,7 @@ public class BookingTestDataProvider {
      */
     @DataProvider(name = "YearTestDataByIndex")
     public static Object[][] getPaymentsDataByIndex() {
-    return ExcelTestDataProvider.getValueByIndex(BOOKING_DATA_PATH, PAYMENTS_SHEETS, "ExpiryYear", 7);
+    return ExcelTestDataProvider.getValueByIndex(bookingWorkbook(), PAYMENTS_SHEETS, "ExpiryYear", 7);
 
     }
 }
@@ -3,10 +3,11 @@ package com.hta.dataProviders.excel;
 import com.hta.config.excel.ExcelTestDataCache;
 import com.hta.utils.logging.ErrorHandler;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class ExcelTestDataProvider {
 
@@ -32,6 +33,7 @@ public class ExcelTestDataProvider {
 
     /**
      * Gets test data from a specified column, filtering out empty and 'Unknown' values.
+     * Rows are filtered and projected lazily from the cached sheet as the iterator is consumed.
      *
      * @param filePath   Path to the Excel file
      * @param sheetName  Name of the sheet to read from
@@ -40,19 +42,11 @@ public class ExcelTestDataProvider {
      */
     public static Iterator<Object[]> getColumnData(String filePath, String sheetName, String columnName) {
         try {
-            List<Map<String, Object>> rawData = convertToMapList(
-                    ExcelTestDataCache.getTestData(filePath, sheetName)
-            );
-
-            List<Object[]> refinedData = new ArrayList<>();
-            for (Map<String, Object> row : rawData) {
-                Object value = row.get(columnName);
-                if (isValidValue(value)) {
-                    refinedData.add(new Object[]{value});
-                }
-            }
-
-            return refinedData.iterator();
+            return streamRows(ExcelTestDataCache.getTestData(filePath, sheetName))
+                    .map(row -> row.get(columnName))
+                    .filter(ExcelTestDataProvider::isValidValue)
+                    .map(value -> new Object[]{value})
+                    .iterator();
         } catch (Exception error) {
             ErrorHandler.logError(error, "getColumnData", "Failed to load test data from file: " + filePath);
             throw new RuntimeException("Failed to load test data", error);
@@ -62,6 +56,7 @@ public class ExcelTestDataProvider {
     /**
      * Gets test data from multiple specified columns.
      * Only includes rows where all specified columns have non-empty values.
+     * Rows are filtered and projected lazily from the cached sheet as the iterator is consumed.
      *
      * @param filePath    Path to the Excel file
      * @param sheetName   Name of the sheet to read from
@@ -70,19 +65,10 @@ public class ExcelTestDataProvider {
      */
     public static Iterator<Object[]> getMultiColumnData(String filePath, String sheetName, String... columnNames) {
         try {
-            List<Map<String, Object>> rawData = convertToMapList(
-                    ExcelTestDataCache.getTestData(filePath, sheetName)
-            );
-
-            List<Object[]> testData = new ArrayList<>();
-            for (Map<String, Object> row : rawData) {
-                if (hasAllRequiredData(row, columnNames)) {
-                    Object[] rowData = extractColumnValues(row, columnNames);
-                    testData.add(rowData);
-                }
-            }
-
-            return testData.iterator();
+            return streamRows(ExcelTestDataCache.getTestData(filePath, sheetName))
+                    .filter(row -> hasAllRequiredData(row, columnNames))
+                    .map(row -> extractColumnValues(row, columnNames))
+                    .iterator();
         } catch (Exception error) {
             ErrorHandler.logError(error, "getMultiColumnData", "Failed to load test data from file: " + filePath);
             throw new RuntimeException("Failed to load test data", error);
@@ -90,28 +76,40 @@ public class ExcelTestDataProvider {
     }
 
     /**
-     * Converts a 2D array of objects into a list of maps.
+     * Gets every row of a sheet bound to a record type, one record per test invocation.
+     * The binding is compiled and validated against the sheet headers once, when the sheet is first used.
+     *
+     * @param filePath   Path to the Excel file
+     * @param sheetName  Name of the sheet to read from
+     * @param recordType The record class each row is bound to
+     * @return Iterator of single-element arrays holding the bound records
+     */
+    public static <R extends Record> Iterator<Object[]> getRecordData(String filePath, String sheetName, Class<R> recordType) {
+        try {
+            List<R> records = ExcelTestDataCache.getRecords(filePath, sheetName, recordType);
+            return records.stream().map(record -> new Object[]{record}).iterator();
+        } catch (Exception error) {
+            ErrorHandler.logError(error, "getRecordData", "Failed to load test data from file: " + filePath);
+            throw new RuntimeException("Failed to load test data", error);
+        }
+    }
+
+    /**
+     * Streams the row maps of a cached sheet without copying them.
      * This method assumes that each row of the input array contains a single map.
      * Only rows that have a map as their first element are included in the result.
+     * <p>
+     * Cached rows are only read and every parameter array is freshly projected, so the resulting
+     * iterators can back {@code @DataProvider(parallel = true)} methods.
      *
      * @param rawDataArray A 2D array of objects where each row is expected to contain a single map
-     * @return A list of maps extracted from the input array
+     * @return A sequential stream of the maps in the input array
      */
     @SuppressWarnings("unchecked")
-    private static List<Map<String, Object>> convertToMapList(Object[][] rawDataArray) {
-        try {
-            List<Map<String, Object>> rawData = new ArrayList<>();
-            for (Object[] row : rawDataArray) {
-                if (row.length > 0 && row[0] instanceof Map) {
-                    Map<String, Object> rowData = (Map<String, Object>) row[0];
-                    rawData.add(rowData);
-                }
-            }
-            return rawData;
-        } catch (Exception error) {
-            ErrorHandler.logError(error, "convertToMapList", "Failed to convert to map list");
-            throw new RuntimeException("Failed to convert to map list", error);
-        }
+    private static Stream<Map<String, Object>> streamRows(Object[][] rawDataArray) {
+        return Arrays.stream(rawDataArray)
+                .filter(row -> row.length > 0 && row[0] instanceof Map)
+                .map(row -> (Map<String, Object>) row[0]);
     }
 
     /**
@@ -1,16 +1,22 @@
 package com.hta.dataProviders.json;
 
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.utils.combinatorial.CoveringArray;
 import com.hta.utils.jacksonUtils.JsonDataReader;
 import com.hta.utils.logging.LoggerUtils;
 import org.apache.logging.log4j.Logger;
 import org.testng.annotations.DataProvider;
 
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BookingJsonData {
 
     private static final Logger logger = LoggerUtils.getLogger(BookingJsonData.class);
+    private static final String COVERING_ARRAY_STRENGTH = "COVERING_ARRAY_STRENGTH";
     private final JsonDataReader bookingDataReader;
 
     // Constructor-based dependency injection
@@ -48,12 +54,38 @@ public class BookingJsonData {
         return getDataList("ChildrenPerRoom");
     }
 
+    /**
+     * Provides search criteria combinations that cover every pair of values (or every n-tuple, per
+     * COVERING_ARRAY_STRENGTH) across the booking sections, instead of their full cross product.
+     *
+     * @return Iterator of location, hotel, room type, number of rooms, adults and children per room
+     */
+    @DataProvider(name = "coveringSearchCriteria")
+    public Iterator<Object[]> provideCoveringSearchCriteria() {
+        int strength = PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), COVERING_ARRAY_STRENGTH, Integer.class)
+                .orElse(CoveringArray.PAIRWISE);
+        return getCoveringData(strength, "Locations", "Hotels", "RoomTypes", "NumberOfRooms",
+                "AdultsPerRoom", "ChildrenPerRoom");
+    }
+
+    private Iterator<Object[]> getCoveringData(int strength, String... sections) {
+        if (bookingDataReader == null) {
+            logger.error("bookingDataReader is not initialized. Ensure TestBase is properly set up.");
+            throw new IllegalStateException("bookingDataReader is not initialized. Ensure TestBase is properly set up.");
+        }
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        for (String section : sections) {
+            parameters.put(section, bookingDataReader.getAllStrings(section));
+        }
+        return CoveringArray.of(strength, parameters).iterator();
+    }
+
     private Iterator<Object[]> getDataList(String section) {
         if (bookingDataReader == null) {
             logger.error("bookingDataReader is not initialized. Ensure TestBase is properly set up.");
             throw new IllegalStateException("bookingDataReader is not initialized. Ensure TestBase is properly set up.");
         }
-        List<String> dataList = bookingDataReader.getAllStrings(section);
-        return dataList.stream().map(data -> new Object[]{data}).iterator();
+        return bookingDataReader.streamStrings(section).map(data -> new Object[]{data}).iterator();
     }
 }
@@ -1,12 +1,12 @@
 package com.hta.dataProviders.json;
 
+import com.hta.dataProviders.records.UserDetails;
 import com.hta.utils.jacksonUtils.JsonDataReader;
 import com.hta.utils.logging.LoggerUtils;
 import org.apache.logging.log4j.Logger;
 import org.testng.annotations.DataProvider;
 
 import java.util.Iterator;
-import java.util.List;
 
 public class PaymentsJsonData {
 
@@ -39,12 +39,22 @@ public class PaymentsJsonData {
         return getDataList("CvvNumber");
     }
 
+    @DataProvider(name = "userDetails")
+    public Iterator<Object[]> provideUserDetails() {
+        if (paymentDataReader == null) {
+            logger.error("paymentDataReader is not initialized. Ensure TestBase is properly set up.");
+            throw new IllegalStateException("paymentDataReader is not initialized. Ensure TestBase is properly set up.");
+        }
+        return paymentDataReader.getRecords("UserDetails", UserDetails.class).stream()
+                .map(userDetails -> new Object[]{userDetails})
+                .iterator();
+    }
+
     private Iterator<Object[]> getDataList(String section) {
         if (paymentDataReader == null) {
             logger.error("bookingDataReader is not initialized. Ensure TestBase is properly set up.");
             throw new IllegalStateException("bookingDataReader is not initialized. Ensure TestBase is properly set up.");
         }
-        List<String> dataList = paymentDataReader.getAllStrings(section);
-        return dataList.stream().map(data -> new Object[]{data}).iterator();
+        return paymentDataReader.streamStrings(section).map(data -> new Object[]{data}).iterator();
     }
 }
@@ -0,0 +1,14 @@
+package com.hta.dataProviders.records;
+
+/**
+ * A row of the "Booking" sheet. The sheet lists each dropdown's options in its own column,
+ * so columns shorter than the longest one are null on the trailing rows.
+ */
+public record BookingRow(
+        String location,
+        String hotels,
+        String roomTypes,
+        String numberOfRooms,
+        String adultsPerRoom,
+        String childrenPerRoom) {
+}
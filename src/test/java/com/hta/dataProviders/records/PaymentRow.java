@@ -0,0 +1,18 @@
+package com.hta.dataProviders.records;
+
+import com.hta.utils.recordBinding.ColumnName;
+
+/**
+ * A row of the "Payments" sheet. Trailing rows only carry the remaining expiry months,
+ * so every column is nullable.
+ */
+public record PaymentRow(
+        String firstName,
+        String lastName,
+        String billingAddress,
+        String creditCardNumber,
+        @ColumnName("CreditCardTypes") String creditCardType,
+        String expiryMonth,
+        Integer expiryYear,
+        @ColumnName("CvvNumbers") Integer cvvNumber) {
+}
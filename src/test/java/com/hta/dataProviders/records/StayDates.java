@@ -0,0 +1,7 @@
+package com.hta.dataProviders.records;
+
+/**
+ * A check-in and check-out date pair in the portal's dd/MM/yyyy format.
+ */
+public record StayDates(String checkInDate, String checkOutDate) {
+}
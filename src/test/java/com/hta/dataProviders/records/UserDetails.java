@@ -0,0 +1,11 @@
+package com.hta.dataProviders.records;
+
+/**
+ * The "UserDetails" section of the payments JSON fixture.
+ */
+public record UserDetails(
+        String firstName,
+        String lastName,
+        String billingAddress,
+        String creditCardNumber) {
+}
@@ -0,0 +1,209 @@
+package com.hta.dataProviders.synthetic;
+
+import com.hta.base.TestConfigInitializer;
+import com.hta.config.paths.JsonDataFilePaths;
+import com.hta.config.properties.PropertiesConfigManager;
+import com.hta.config.properties.PropertiesFileAlias;
+import com.hta.dataProviders.records.BookingRow;
+import com.hta.dataProviders.records.PaymentRow;
+import com.hta.dataProviders.records.StayDates;
+import com.hta.utils.DateGeneratorUtils;
+import com.hta.utils.jacksonUtils.JsonDataReader;
+import com.hta.utils.logging.LoggerUtils;
+import com.hta.utils.syntheticData.Seeded;
+import com.hta.utils.syntheticData.SyntheticDataPool;
+import net.datafaker.Faker;
+import net.datafaker.providers.base.Finance.CreditCardType;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.DataProvider;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Data providers of synthetic bookings, payments and stay dates, drawn from background-filled
+ * {@link SyntheticDataPool}s.
+ * <p>
+ * Booking and payment dropdown values are picked from the JSON fixtures so they are always valid
+ * options in the portal; names, addresses and card numbers come from Datafaker. Every row is passed
+ * to the test as a {@link Seeded} value, so the seed shows up in the test name and a failing row can
+ * be rebuilt with the matching {@code regenerate} method.
+ * <p>
+ * The base seed is taken from the {@value #SEED_PROPERTY} system property, then from
+ * SYNTHETIC_DATA_SEED in the global config, and is otherwise random; it is logged either way so a
+ * whole run can be repeated. Stay dates are generated as offsets from today, so a seed reproduces
+ * the same dates only on the same day.
+ */
+public final class SyntheticTestData {
+
+    private static final Logger logger = LoggerUtils.getLogger(SyntheticTestData.class);
+
+    private static final String SEED_PROPERTY = "syntheticDataSeed";
+    private static final String SYNTHETIC_DATA_SEED = "SYNTHETIC_DATA_SEED";
+    private static final String SYNTHETIC_DATA_ROWS = "SYNTHETIC_DATA_ROWS";
+    private static final String SYNTHETIC_DATA_POOL_SIZE = "SYNTHETIC_DATA_POOL_SIZE";
+    private static final int DEFAULT_ROWS = 20;
+
+    private static final int MAX_DAYS_UNTIL_CHECK_IN = 60;
+    private static final int MAX_NIGHTS = 14;
+
+    private static volatile Pools pools;
+
+    private record Pools(SyntheticDataPool<BookingRow> bookings,
+                         SyntheticDataPool<PaymentRow> payments,
+                         SyntheticDataPool<StayDates> stayDates) {
+    }
+
+    private SyntheticTestData() {
+        throw new AssertionError("Utility class - do not instantiate");
+    }
+
+    @DataProvider(name = "syntheticBookings")
+    public static Iterator<Object[]> provideBookings() {
+        return draw(pools().bookings());
+    }
+
+    @DataProvider(name = "syntheticPayments")
+    public static Iterator<Object[]> providePayments() {
+        return draw(pools().payments());
+    }
+
+    @DataProvider(name = "syntheticStayDates")
+    public static Iterator<Object[]> provideStayDates() {
+        return draw(pools().stayDates());
+    }
+
+    public static Seeded<BookingRow> regenerateBooking(long seed) {
+        return pools().bookings().regenerate(seed);
+    }
+
+    public static Seeded<PaymentRow> regeneratePayment(long seed) {
+        return pools().payments().regenerate(seed);
+    }
+
+    public static Seeded<StayDates> regenerateStayDates(long seed) {
+        return pools().stayDates().regenerate(seed);
+    }
+
+    /**
+     * Logs the usage of the pools, if any data was requested during the run.
+     */
+    public static void logStatistics() {
+        Pools current = pools;
+        if (current != null) {
+            current.bookings().logStatistics();
+            current.payments().logStatistics();
+            current.stayDates().logStatistics();
+        }
+    }
+
+    private static <T> Iterator<Object[]> draw(SyntheticDataPool<T> pool) {
+        int rows = PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), SYNTHETIC_DATA_ROWS, Integer.class)
+                .orElse(DEFAULT_ROWS);
+        return Stream.generate(pool::next).limit(rows).map(row -> new Object[]{row}).iterator();
+    }
+
+    private static Pools pools() {
+        Pools current = pools;
+        if (current == null) {
+            synchronized (SyntheticTestData.class) {
+                current = pools;
+                if (current == null) {
+                    current = createPools();
+                    pools = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Pools createPools() {
+        long baseSeed = resolveBaseSeed();
+        int capacity = PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), SYNTHETIC_DATA_POOL_SIZE, Integer.class)
+                .orElse(SyntheticDataPool.DEFAULT_CAPACITY);
+        logger.info("Synthetic test data base seed: {} (rerun with -D{}={})", baseSeed, SEED_PROPERTY, baseSeed);
+
+        JsonDataReader bookingReader = TestConfigInitializer.createJsonReader(JsonDataFilePaths.BOOKING);
+        JsonDataReader paymentReader = TestConfigInitializer.createJsonReader(JsonDataFilePaths.PAYMENTS);
+
+        // Each pool gets its own base seed, so adding a field to one kind of row leaves the others unchanged
+        return new Pools(
+                new SyntheticDataPool<>("bookings", baseSeed, capacity, bookingGenerator(bookingReader)),
+                new SyntheticDataPool<>("payments", baseSeed + 1, capacity, paymentGenerator(paymentReader)),
+                new SyntheticDataPool<>("stay-dates", baseSeed + 2, capacity, SyntheticTestData::generateStayDates));
+    }
+
+    private static long resolveBaseSeed() {
+        String seed = System.getProperty(SEED_PROPERTY);
+        if (seed != null && !seed.isBlank()) {
+            return Long.parseLong(seed.trim());
+        }
+        return PropertiesConfigManager.getPropertyKeyFromCache(
+                        PropertiesFileAlias.GLOBAL.getConfigurationAlias(), SYNTHETIC_DATA_SEED, Long.class)
+                .orElseGet(System::nanoTime);
+    }
+
+    private static Function<Faker, BookingRow> bookingGenerator(JsonDataReader reader) {
+        List<String> locations = reader.getAllStrings("Locations");
+        List<String> hotels = reader.getAllStrings("Hotels");
+        List<String> roomTypes = reader.getAllStrings("RoomTypes");
+        List<String> numberOfRooms = reader.getAllStrings("NumberOfRooms");
+        List<String> adultsPerRoom = reader.getAllStrings("AdultsPerRoom");
+        List<String> childrenPerRoom = reader.getAllStrings("ChildrenPerRoom");
+
+        return faker -> new BookingRow(
+                faker.options().nextElement(locations),
+                faker.options().nextElement(hotels),
+                faker.options().nextElement(roomTypes),
+                faker.options().nextElement(numberOfRooms),
+                faker.options().nextElement(adultsPerRoom),
+                faker.options().nextElement(childrenPerRoom));
+    }
+
+    private static Function<Faker, PaymentRow> paymentGenerator(JsonDataReader reader) {
+        List<String> cardTypes = reader.getAllStrings("CreditCardType");
+        List<String> expiryMonths = reader.getAllStrings("ExpiryMonth");
+        int currentYear = Year.now().getValue();
+        List<Integer> allExpiryYears = reader.getAllStrings("ExpiryYear").stream().map(Integer::valueOf).toList();
+        List<Integer> validExpiryYears = allExpiryYears.stream().filter(year -> year >= currentYear).toList();
+        List<Integer> expiryYears = validExpiryYears.isEmpty() ? allExpiryYears : validExpiryYears;
+
+        return faker -> {
+            String cardType = faker.options().nextElement(cardTypes);
+            CreditCardType fakerCardType = toFakerCardType(cardType);
+            int cvvNumber = fakerCardType == CreditCardType.AMERICAN_EXPRESS
+                    ? faker.number().numberBetween(1000, 10000)
+                    : faker.number().numberBetween(100, 1000);
+            return new PaymentRow(
+                    faker.name().firstName(),
+                    faker.name().lastName(),
+                    faker.address().fullAddress(),
+                    faker.finance().creditCard(fakerCardType).replaceAll("\\D", ""),
+                    cardType,
+                    faker.options().nextElement(expiryMonths),
+                    faker.options().nextElement(expiryYears),
+                    cvvNumber);
+        };
+    }
+
+    private static CreditCardType toFakerCardType(String cardType) {
+        return switch (cardType) {
+            case "American Express" -> CreditCardType.AMERICAN_EXPRESS;
+            case "VISA" -> CreditCardType.VISA;
+            case "Master Card" -> CreditCardType.MASTERCARD;
+            default -> CreditCardType.DISCOVER;
+        };
+    }
+
+    private static StayDates generateStayDates(Faker faker) {
+        LocalDate checkIn = LocalDate.now().plusDays(faker.number().numberBetween(0, MAX_DAYS_UNTIL_CHECK_IN + 1));
+        LocalDate checkOut = checkIn.plusDays(faker.number().numberBetween(1, MAX_NIGHTS + 1));
+        return new StayDates(DateGeneratorUtils.format(checkIn), DateGeneratorUtils.format(checkOut));
+    }
+}
@@ -0,0 +1,325 @@
+package com.hta.drivers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hta.utils.jacksonUtils.JsonConverter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs {@link GridSessionScheduler} against a local stub of the Grid's /status endpoint.
+ * The stub reports one node with a fixed number of slots for each of its browsers, of which as many
+ * are busy as the test has sessions open, and optionally a maxSessions. No browser or Grid is needed.
+ */
+public class GridSessionSchedulerTest {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    private static final long WAIT_TIMEOUT_MILLIS = 5000;
+
+    private HttpServer statusServer;
+    private final AtomicInteger slots = new AtomicInteger();
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final AtomicInteger maxSessions = new AtomicInteger();
+    private volatile List<String> browsers = List.of("chrome");
+    private final AtomicBoolean statusFailing = new AtomicBoolean();
+    private final List<GridSessionScheduler> schedulers = new ArrayList<>();
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void startStatusServer() throws IOException {
+        slots.set(0);
+        openSessions.set(0);
+        maxSessions.set(0);
+        browsers = List.of("chrome");
+        statusFailing.set(false);
+        statusServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        statusServer.createContext("/status", this::respondWithStatus);
+        statusServer.start();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStatusServer() {
+        schedulers.forEach(GridSessionScheduler::shutdown);
+        schedulers.clear();
+        executor.shutdownNow();
+        statusServer.stop(0);
+    }
+
+    @Test
+    public void countsIdleSlotsOfNodesThatAreUp() throws IOException {
+        JsonNode status = JsonConverter.getObjectMapper().readTree("""
+                {"value": {"ready": true, "nodes": [
+                  {"availability": "UP", "slots": [
+                    {"stereotype": {"browserName": "chrome"}, "session": null},
+                    {"stereotype": {"browserName": "chrome"}, "session": {"sessionId": "a"}},
+                    {"stereotype": {"browserName": "firefox"}},
+                    {"stereotype": {"browserName": "MicrosoftEdge"}, "session": null}]},
+                  {"availability": "DOWN", "slots": [
+                    {"stereotype": {"browserName": "chrome"}, "session": null}]}]}}
+                """);
+
+        List<GridSessionScheduler.NodeCapacity> nodes = GridSessionScheduler.parseNodes(status);
+
+        Assert.assertEquals(nodes.size(), 1);
+        Assert.assertEquals(nodes.get(0).idleSlots(), Map.of("chrome", 1, "firefox", 1, "edge", 1));
+        Assert.assertEquals(nodes.get(0).headroom(), 3, "Node without maxSessions");
+    }
+
+    @Test
+    public void capsNodeHeadroomAtMaxSessionsMinusRunningSessions() throws IOException {
+        JsonNode status = JsonConverter.getObjectMapper().readTree("""
+                {"value": {"ready": true, "nodes": [
+                  {"id": "standalone", "availability": "UP", "maxSessions": 4, "slots": [
+                    {"stereotype": {"browserName": "chrome"}, "session": {"sessionId": "a"}},
+                    {"stereotype": {"browserName": "chrome"}, "session": null},
+                    {"stereotype": {"browserName": "chrome"}, "session": null},
+                    {"stereotype": {"browserName": "chrome"}, "session": null},
+                    {"stereotype": {"browserName": "firefox"}, "session": null},
+                    {"stereotype": {"browserName": "firefox"}, "session": null},
+                    {"stereotype": {"browserName": "firefox"}, "session": null},
+                    {"stereotype": {"browserName": "firefox"}, "session": null}]}]}}
+                """);
+
+        GridSessionScheduler.NodeCapacity node = GridSessionScheduler.parseNodes(status).get(0);
+
+        Assert.assertEquals(node.id(), "standalone");
+        Assert.assertEquals(node.headroom(), 3);
+        Assert.assertEquals(node.idleSlots(), Map.of("chrome", 3, "firefox", 4));
+    }
+
+    @Test
+    public void neverRunsMoreSessionsThanTheGridHasSlots() throws Exception {
+        slots.set(2);
+        GridSessionScheduler scheduler = newScheduler(TimeUnit.SECONDS.toMillis(10));
+        AtomicInteger peakSessions = new AtomicInteger();
+
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(executor.submit(() -> {
+                scheduler.createSession("chrome", GridSessionScheduler.NORMAL_PRIORITY, () -> {
+                    peakSessions.accumulateAndGet(openSessions.incrementAndGet(), Math::max);
+                    return newSession();
+                });
+                sleep(300);
+                openSessions.decrementAndGet();
+                return null;
+            }));
+        }
+        for (Future<?> request : requests) {
+            request.get(WAIT_TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals(peakSessions.get(), 2, "Sessions open at once");
+        Assert.assertEquals(scheduler.getStatistics().granted(), 5);
+        Assert.assertEquals(scheduler.getStatistics().timedOut(), 0);
+    }
+
+    @Test
+    public void sharesMaxSessionsOfANodeAcrossItsBrowsers() throws Exception {
+        slots.set(4);
+        maxSessions.set(2);
+        browsers = List.of("chrome", "firefox", "MicrosoftEdge");
+        GridSessionScheduler scheduler = newScheduler(TimeUnit.SECONDS.toMillis(10));
+        AtomicInteger peakSessions = new AtomicInteger();
+
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String browser = browsers.get(i % browsers.size());
+            requests.add(executor.submit(() -> {
+                scheduler.createSession(browser, GridSessionScheduler.NORMAL_PRIORITY, () -> {
+                    peakSessions.accumulateAndGet(openSessions.incrementAndGet(), Math::max);
+                    return newSession();
+                });
+                sleep(300);
+                openSessions.decrementAndGet();
+                return null;
+            }));
+        }
+        for (Future<?> request : requests) {
+            request.get(WAIT_TIMEOUT_MILLIS * 2, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals(peakSessions.get(), 2, "Sessions open at once on a node with maxSessions 2");
+        Assert.assertEquals(scheduler.getStatistics().granted(), 6);
+    }
+
+    @Test
+    public void grantsHigherPriorityFirstThenInArrivalOrder() throws Exception {
+        slots.set(1);
+        openSessions.set(1);
+        GridSessionScheduler scheduler = newScheduler(TimeUnit.SECONDS.toMillis(10));
+        List<String> grantOrder = Collections.synchronizedList(new ArrayList<>());
+
+        List<Future<?>> requests = new ArrayList<>();
+        String[] names = {"first", "second", "retry"};
+        int[] priorities = {GridSessionScheduler.NORMAL_PRIORITY, GridSessionScheduler.NORMAL_PRIORITY,
+                GridSessionScheduler.HIGH_PRIORITY};
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            int priority = priorities[i];
+            requests.add(executor.submit(() -> scheduler.createSession("chrome", priority, () -> {
+                grantOrder.add(name);
+                openSessions.incrementAndGet();
+                return newSession();
+            })));
+            int queued = i + 1;
+            awaitCondition(() -> scheduler.getStatistics().queueDepth() == queued, "request " + name + " to queue");
+        }
+
+        // Free the one slot for each waiting request in turn
+        for (int granted = 1; granted <= names.length; granted++) {
+            openSessions.decrementAndGet();
+            int expected = granted;
+            awaitCondition(() -> grantOrder.size() == expected, "grant " + expected);
+        }
+        for (Future<?> request : requests) {
+            request.get(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertEquals(grantOrder, List.of("retry", "first", "second"));
+    }
+
+    @Test
+    public void failsRequestsThatWaitLongerThanTheQueueTimeout() {
+        slots.set(1);
+        openSessions.set(1);
+        GridSessionScheduler scheduler = newScheduler(300);
+        AtomicBoolean created = new AtomicBoolean();
+
+        Assert.assertThrows(WebDriverException.class, () -> scheduler.createSession(
+                "chrome", GridSessionScheduler.NORMAL_PRIORITY, () -> {
+                    created.set(true);
+                    return newSession();
+                }));
+        Assert.assertFalse(created.get(), "Session created without a free slot");
+        Assert.assertEquals(scheduler.getStatistics().timedOut(), 1);
+        Assert.assertEquals(scheduler.getStatistics().queueDepth(), 0);
+    }
+
+    @Test
+    public void passesRequestsThroughWhenTheStatusCannotBeRead() {
+        statusFailing.set(true);
+        GridSessionScheduler scheduler = newScheduler(TimeUnit.SECONDS.toMillis(10));
+
+        long startTime = System.nanoTime();
+        WebDriver session = scheduler.createSession("chrome", GridSessionScheduler.NORMAL_PRIORITY,
+                GridSessionSchedulerTest::newSession);
+
+        Assert.assertNotNull(session);
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) < WAIT_TIMEOUT_MILLIS,
+                "Request waited for a status that cannot be read");
+    }
+
+    @Test
+    public void passesRequestsThroughWhenTheGridIsUnreachable() {
+        int port = statusServer.getAddress().getPort();
+        statusServer.stop(0);
+        GridSessionScheduler scheduler = new GridSessionScheduler("http://127.0.0.1:" + port + "/wd/hub",
+                POLL_INTERVAL_MILLIS, TimeUnit.SECONDS.toMillis(10));
+        schedulers.add(scheduler);
+
+        WebDriver session = scheduler.createSession("chrome", GridSessionScheduler.NORMAL_PRIORITY,
+                GridSessionSchedulerTest::newSession);
+
+        Assert.assertNotNull(session);
+        Assert.assertEquals(scheduler.getStatistics().granted(), 1);
+    }
+
+    @Test
+    public void releasesWaitingRequestsOnShutdown() throws Exception {
+        slots.set(1);
+        openSessions.set(1);
+        GridSessionScheduler scheduler = newScheduler(TimeUnit.SECONDS.toMillis(10));
+        Future<WebDriver> request = executor.submit(() -> scheduler.createSession(
+                "chrome", GridSessionScheduler.NORMAL_PRIORITY, GridSessionSchedulerTest::newSession));
+        awaitCondition(() -> scheduler.getStatistics().queueDepth() == 1, "request to queue");
+
+        scheduler.shutdown();
+
+        Assert.assertNotNull(request.get(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    private GridSessionScheduler newScheduler(long queueTimeoutMillis) {
+        GridSessionScheduler scheduler = new GridSessionScheduler(
+                "http://127.0.0.1:" + statusServer.getAddress().getPort() + "/wd/hub/",
+                POLL_INTERVAL_MILLIS, queueTimeoutMillis);
+        schedulers.add(scheduler);
+        return scheduler;
+    }
+
+    private void respondWithStatus(HttpExchange exchange) throws IOException {
+        if (statusFailing.get()) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+
+        // The open sessions take the first slots, whatever browser they run
+        List<String> slotJson = new ArrayList<>();
+        for (String browser : browsers) {
+            for (int i = 0; i < slots.get(); i++) {
+                int slot = slotJson.size();
+                String session = slot < openSessions.get() ? "{\"sessionId\": \"session-" + slot + "\"}" : "null";
+                slotJson.add("{\"stereotype\": {\"browserName\": \"" + browser + "\"}, \"session\": " + session + "}");
+            }
+        }
+        String maxSessionsJson = maxSessions.get() > 0 ? "\"maxSessions\": " + maxSessions.get() + ", " : "";
+        byte[] body = ("{\"value\": {\"ready\": true, \"nodes\": [{\"id\": \"node\", \"availability\": \"UP\", "
+                + maxSessionsJson + "\"slots\": [" + String.join(", ", slotJson) + "]}]}}").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    private static WebDriver newSession() {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, arguments) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == arguments[0];
+                    case "toString" -> "stub session";
+                    default -> null;
+                });
+    }
+
+    private static void awaitCondition(BooleanSupplier condition, String description) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_TIMEOUT_MILLIS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                Assert.fail("Timed out waiting for " + description);
+            }
+            sleep(10);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hta.tests.ui.hotelTests;
 
+import com.hta.base.RequiresUiLogin;
 import com.hta.base.TestBase;
 import com.hta.config.retry.TestRetryAnalyzer;
 import com.hta.utils.logging.ErrorHandler;
@@ -15,11 +16,11 @@ public class LoginTests extends TestBase {
     private static final String INVALID_USERNAME = "User8958";
     private static final String INVALID_PASSWORD = "password123";
 
+    @RequiresUiLogin
     @Test(groups = {"sanity"}, retryAnalyzer = TestRetryAnalyzer.class)
     public void loginWithValidCredentials() {
         try {
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
             loginPage.captureScreenshot("ValidLogin");
             logger.info("Login successful");
         } catch (Exception error) {
@@ -50,8 +51,7 @@ public class LoginTests extends TestBase {
         public void verifyTopNavigationLinks() {
             try{
                 // Login
-                loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-                loginPage.verifyLoginErrorMessageNotVisible();
+                ensureLoggedIn();
 
                 // Top Navigation Links
                 topNavigationPage.verifyAllNavigationsMenusAreDisplayed(WELCOME_TEXT_MESSAGE);
@@ -25,8 +25,7 @@ public class SearchHotelTests extends TestBase {
     public void searchHotel(){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.searchForHotel(
@@ -57,8 +56,7 @@ public class SearchHotelTests extends TestBase {
     public void verifySearchFailsWithoutHotelSelection(){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.verifySearchHotelHeaderDisplayed();
@@ -75,8 +73,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyHotelSearchDisplaysResultsForLocation(String location) {
         try {
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.selectLocationDropdown(location);
@@ -94,8 +91,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyHotelSelection(String hotel){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.selectHotelsDropdown(hotel);
@@ -111,8 +107,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyRoomTypeSelection(String roomType){
         try{
             // Login2
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.selectRoomTypeDropdown(roomType);
@@ -128,8 +123,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyNumberOfRoomsSelection(String numberOfRooms) {
         try {
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.selectNumberOfRooms(numberOfRooms);
@@ -145,8 +139,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyUserCanFIllCheckInDate(){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.fillCheckInDateInput(DateGeneratorUtils.getCurrentDate());
@@ -163,8 +156,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyCheckInDateCannotBeInPast(){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.fillCheckInDateInput(DateGeneratorUtils.getTwoDaysBeforeCurrentDate());
@@ -181,8 +173,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyUserCanFIllCheckOutDate(){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.fillCheckOutDateInput(DateGeneratorUtils.getDateAfterSixDays());
@@ -199,8 +190,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyCheckOutDateCannotBeBeforeCheckInDate(){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.fillCheckInDateInput(DateGeneratorUtils.getCurrentDate());
@@ -220,8 +210,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyAdultsPerRoomSelection(String adultsPerRoom){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.selectAdultsDropdown(adultsPerRoom);
@@ -237,8 +226,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyChildrenPerRoomSelection(String childrenPerRoom){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.selectChildrenDropdown(childrenPerRoom);
@@ -254,8 +242,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyHotelSearchFormCanBeFilledAndReset(){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.searchForHotel(
@@ -292,8 +279,7 @@ public class SearchHotelTests extends TestBase {
     public void verifyCancellationOfSearchHotel(){
         try{
             // Login
-            loginPage.loginToPortal(decryptCredentials().get(0), decryptCredentials().get(1));
-            loginPage.verifyLoginErrorMessageNotVisible();
+            ensureLoggedIn();
 
             // Search Hotel
             searchHotelPage.searchForHotel(